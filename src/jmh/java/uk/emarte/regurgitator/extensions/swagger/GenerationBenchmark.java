@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full generation runs, from parsing the open api file to writing every configuration file, into memory so
+ * that disk speed is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class GenerationBenchmark {
+    @Param({"10", "1000", "10000"})
+    private int operations;
+
+    @Param({"json", "xml"})
+    private String outputType;
+
+    private File swaggerFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        swaggerFile = Files.createTempFile("synthetic", ".yaml").toFile();
+        swaggerFile.deleteOnExit();
+        new SyntheticSpecGenerator().withPaths(Math.max(1, operations / 2)).withOperationsPerPath(2).write(swaggerFile);
+    }
+
+    @Benchmark
+    public MemoryOutputSink generate() throws GenerationException {
+        MemoryOutputSink sink = new MemoryOutputSink();
+        ConfigurationGenerator.generateConfiguration(swaggerFile, sink, outputType, new GenerationOptions().withQuiet(true));
+        return sink;
+    }
+}
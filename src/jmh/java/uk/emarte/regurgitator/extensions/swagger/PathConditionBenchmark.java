@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.PathParameter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compilation of templated paths into the regex conditions that route requests to them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathConditionBenchmark {
+    @Param({"10", "1000", "10000"})
+    private int operations;
+
+    private List<String> paths;
+    private List<Parameter> parameters;
+
+    @Setup
+    public void setUp() {
+        paths = SyntheticSpecs.templatedPaths(operations);
+        parameters = Arrays.asList(new PathParameter().name("id").schema(new IntegerSchema()), new PathParameter().name("itemId").schema(new StringSchema()));
+    }
+
+    @Benchmark
+    public void buildPathConditions(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(ConfigurationGenerator.buildPathCondition(PathTemplate.compile(path), parameters));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import org.openjdk.jmh.annotations.*;
+import uk.emarte.regurgitator.extensions.swagger.postman.Body;
+import uk.emarte.regurgitator.extensions.swagger.postman.Collection;
+import uk.emarte.regurgitator.extensions.swagger.postman.Header;
+import uk.emarte.regurgitator.extensions.swagger.postman.Info;
+import uk.emarte.regurgitator.extensions.swagger.postman.Item;
+import uk.emarte.regurgitator.extensions.swagger.postman.ItemGroup;
+import uk.emarte.regurgitator.extensions.swagger.postman.Request;
+import uk.emarte.regurgitator.extensions.swagger.postman.Response;
+import uk.emarte.regurgitator.extensions.swagger.postman.Variable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Writing of the postman collection generated alongside the configuration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostmanBenchmark {
+    @Param({"10", "1000", "10000"})
+    private int operations;
+
+    private Collection collection;
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    @Setup
+    public void setUp() {
+        Item[] items = new Item[operations];
+
+        for (int i = 0; i < operations; i++) {
+            String path = "/group" + (i / 100) + "/resource" + i + "/{{id}}";
+            Header[] headers = {new Header("mock-response-code", "200", true, "Return response code 200"), new Header("mock-response-code", "404", true, "Return response code 404")};
+            Request request = new Request("operation " + i, "synthetic operation " + i, path, Method.GET, headers, new Body(uk.emarte.regurgitator.extensions.swagger.postman.Mode.raw, null, false), emptyList());
+            items[i] = new Item("GET " + path, request, new Response[] {new Response("{\"id\" : " + i + ", \"name\" : \"abcdefgh\"}", 200)});
+        }
+
+        ItemGroup itemGroup = new ItemGroup("All Requests", "All requests for swagger file synthetic.yaml", items);
+        collection = new Collection(new Info("Swagger Collection - synthetic.yaml", "Collection for swagger file synthetic.yaml", "1", "https://schema.getpostman.com/json/collection/v2.1.0/collection.json"), new ItemGroup[] {itemGroup}, new Variable[] {new Variable("id", Collection.PLACEHOLDER)});
+    }
+
+    @Benchmark
+    public String saveCollection() throws IOException {
+        outputStream.reset();
+        return JsonUtil.saveToJson(collection, outputStream);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.media.Schema;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Rendering of example bodies from schemas of each shape, in both body formats.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaRenderingBenchmark {
+    @Param({"flat", "deep", "wide", "recursive"})
+    private String shape;
+
+    private Schema<?> schema;
+    private ComponentGraph graph;
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    @Setup
+    public void setUp() {
+        Components components = new Components();
+        schema = SyntheticSpecs.schema(SyntheticSpecs.Shape.valueOf(shape), components);
+        graph = new ComponentGraph(components);
+    }
+
+    @Benchmark
+    public Object buildJson() {
+        return JsonUtil.buildJsonObject(schema, graph, new ExampleCache(graph), new HashSet<>());
+    }
+
+    @Benchmark
+    public String saveJson() throws IOException {
+        outputStream.reset();
+        return JsonUtil.saveToJson(JsonUtil.buildJsonObject(schema, graph, new ExampleCache(graph), new HashSet<>()), outputStream);
+    }
+
+    @Benchmark
+    public int streamJson() throws IOException {
+        outputStream.reset();
+        JsonUtil.streamToJson(schema, graph, outputStream);
+        return outputStream.size();
+    }
+
+    @Benchmark
+    public String saveXml() throws IOException, XMLStreamException {
+        outputStream.reset();
+        return XmlUtil.saveToXml(writer -> XmlUtil.writeXmlObject(shape, schema, graph, new ExampleCache(graph), new HashSet<>(), writer), outputStream);
+    }
+}
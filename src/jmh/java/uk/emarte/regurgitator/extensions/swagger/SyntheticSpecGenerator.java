@@ -0,0 +1,444 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.*;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.PathParameter;
+import io.swagger.v3.oas.models.parameters.QueryParameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic open api 3 documents of a configurable size and shape for benchmarking and soak
+ * testing generation. Documents are built from a seeded random, so the same options and seed always give
+ * the same document, and between them cover every kind of path, parameter, body, response and schema the
+ * generator handles: templated paths of integer and string parameters declared on path items and
+ * operations, optional and required query parameters, json, xml, example only and unsupported bodies,
+ * numbered, NXX, default, empty and referenced responses, and schemas of every scalar type and format,
+ * arrays, wrapped xml arrays, xml attributes and namespaces, additional properties, shared component
+ * references and recursive components.
+ */
+public class SyntheticSpecGenerator {
+    static final String USAGE_TEXT = "Usage: java uk.emarte.regurgitator.extensions.swagger.SyntheticSpecGenerator outputFile.[json|yaml] [options]" + System.lineSeparator() +
+            "Options:" + System.lineSeparator() +
+            "  --seed=N                     seed of the random the document is built from (default 1)" + System.lineSeparator() +
+            "  --paths=N                    number of paths (default 100)" + System.lineSeparator() +
+            "  --operations-per-path=N      operations per path, 1 to 6 (default 2)" + System.lineSeparator() +
+            "  --path-depth=N               templated parameters per path (default 1)" + System.lineSeparator() +
+            "  --components=N               number of component schemas (default 50)" + System.lineSeparator() +
+            "  --fan-out=N                  properties per object schema (default 6)" + System.lineSeparator() +
+            "  --schema-depth=N             levels of inline objects within a schema (default 2)" + System.lineSeparator() +
+            "  --ref-ratio=R                chance, 0 to 1, a nested object is a component reference (default 0.5)" + System.lineSeparator() +
+            "  --recursive-ratio=R          chance, 0 to 1, a component reference is to itself or its parent (default 0.1)" + System.lineSeparator() +
+            "  --xml-ratio=R                chance, 0 to 1, a body is xml rather than json (default 0.5)" + System.lineSeparator() +
+            "  --nxx-ratio=R                chance, 0 to 1, an operation has an NXX response code (default 0.2)";
+
+    private static final String REF_PREFIX = "#/components/schemas/", RESPONSE_REF_PREFIX = "#/components/responses/";
+    private static final String APPLICATION_JSON = "application/json", APPLICATION_XML = "application/xml", TEXT_XML = "text/xml", TEXT_PLAIN = "text/plain";
+    private static final List<String> METHODS = Arrays.asList("get", "post", "put", "patch", "delete", "head");
+    private static final String SHARED_RESPONSE = "error";
+    private static final int SCALAR_KINDS = 13;
+    private static final int REFS_PER_SCHEMA = 2; // components reference their children in a tree, so every example stays linear in the component count
+
+    private long seed = 1;
+    private int paths = 100;
+    private int operationsPerPath = 2;
+    private int pathDepth = 1;
+    private int components = 50;
+    private int fanOut = 6;
+    private int schemaDepth = 2;
+    private double refRatio = 0.5;
+    private double recursiveRatio = 0.1;
+    private double xmlRatio = 0.5;
+    private double nxxRatio = 0.2;
+
+    private Random random;
+    private int names;
+    private int refsLeft;
+
+    /**
+     * writes a synthetic open api document to the given file
+     *
+     * @param args the output file, followed by any options
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println(USAGE_TEXT);
+            System.exit(1);
+        }
+
+        try {
+            SyntheticSpecGenerator generator = parse(Arrays.copyOfRange(args, 1, args.length));
+            File file = new File(args[0]);
+            generator.write(file);
+            System.out.println("generated " + generator.paths + " path(s), " + generator.paths * generator.operationsPerPath + " operation(s) to " + file.getName());
+        } catch (IllegalArgumentException iae) {
+            System.err.println(iae.getMessage());
+            System.err.println(USAGE_TEXT);
+            System.exit(1);
+        } catch (IOException ioe) {
+            System.err.println("Error writing spec: " + ioe.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * parses generator options from command line arguments of the form --name=value
+     *
+     * @param args option arguments
+     * @return a generator with the parsed options
+     * @throws IllegalArgumentException if an argument is not a recognised option or has an invalid value
+     */
+    static SyntheticSpecGenerator parse(String... args) {
+        SyntheticSpecGenerator generator = new SyntheticSpecGenerator();
+
+        for (String arg : args) {
+            int equalsIndex = arg.indexOf("=");
+            String name = equalsIndex != -1 ? arg.substring(0, equalsIndex) : arg;
+            String value = equalsIndex != -1 ? arg.substring(equalsIndex + 1) : null;
+
+            try {
+                switch (name) {
+                    case "--seed": generator.withSeed(Long.parseLong(value)); break;
+                    case "--paths": generator.withPaths(Integer.parseInt(value)); break;
+                    case "--operations-per-path": generator.withOperationsPerPath(Integer.parseInt(value)); break;
+                    case "--path-depth": generator.withPathDepth(Integer.parseInt(value)); break;
+                    case "--components": generator.withComponents(Integer.parseInt(value)); break;
+                    case "--fan-out": generator.withFanOut(Integer.parseInt(value)); break;
+                    case "--schema-depth": generator.withSchemaDepth(Integer.parseInt(value)); break;
+                    case "--ref-ratio": generator.withRefRatio(Double.parseDouble(value)); break;
+                    case "--recursive-ratio": generator.withRecursiveRatio(Double.parseDouble(value)); break;
+                    case "--xml-ratio": generator.withXmlRatio(Double.parseDouble(value)); break;
+                    case "--nxx-ratio": generator.withNxxRatio(Double.parseDouble(value)); break;
+                    default: throw new IllegalArgumentException("Invalid option: " + arg);
+                }
+            } catch (NumberFormatException | NullPointerException e) {
+                throw new IllegalArgumentException("Invalid value for option " + name + ": " + value);
+            }
+        }
+
+        return generator;
+    }
+
+    public SyntheticSpecGenerator withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public SyntheticSpecGenerator withPaths(int paths) {
+        this.paths = atLeast("Path count", paths, 1);
+        return this;
+    }
+
+    public SyntheticSpecGenerator withOperationsPerPath(int operationsPerPath) {
+        if (operationsPerPath > METHODS.size()) {
+            throw new IllegalArgumentException("Operations per path cannot be more than " + METHODS.size() + ": " + operationsPerPath);
+        }
+
+        this.operationsPerPath = atLeast("Operations per path", operationsPerPath, 1);
+        return this;
+    }
+
+    public SyntheticSpecGenerator withPathDepth(int pathDepth) {
+        this.pathDepth = atLeast("Path depth", pathDepth, 0);
+        return this;
+    }
+
+    public SyntheticSpecGenerator withComponents(int components) {
+        this.components = atLeast("Component count", components, 1);
+        return this;
+    }
+
+    public SyntheticSpecGenerator withFanOut(int fanOut) {
+        this.fanOut = atLeast("Fan out", fanOut, 1);
+        return this;
+    }
+
+    public SyntheticSpecGenerator withSchemaDepth(int schemaDepth) {
+        this.schemaDepth = atLeast("Schema depth", schemaDepth, 1);
+        return this;
+    }
+
+    public SyntheticSpecGenerator withRefRatio(double refRatio) {
+        this.refRatio = ratio("Ref ratio", refRatio);
+        return this;
+    }
+
+    public SyntheticSpecGenerator withRecursiveRatio(double recursiveRatio) {
+        this.recursiveRatio = ratio("Recursive ratio", recursiveRatio);
+        return this;
+    }
+
+    public SyntheticSpecGenerator withXmlRatio(double xmlRatio) {
+        this.xmlRatio = ratio("Xml ratio", xmlRatio);
+        return this;
+    }
+
+    public SyntheticSpecGenerator withNxxRatio(double nxxRatio) {
+        this.nxxRatio = ratio("NXX ratio", nxxRatio);
+        return this;
+    }
+
+    private static int atLeast(String name, int value, int minimum) {
+        if (value < minimum) {
+            throw new IllegalArgumentException(name + " must be at least " + minimum + ": " + value);
+        }
+
+        return value;
+    }
+
+    private static double ratio(String name, double value) {
+        if (value < 0 || value > 1) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + value);
+        }
+
+        return value;
+    }
+
+    /**
+     * @param file the file to write, as json if its name ends in .json, otherwise as yaml
+     * @throws IOException
+     */
+    public void write(File file) throws IOException {
+        OpenAPI openAPI = generate();
+
+        if (file.getName().endsWith(".json")) {
+            Json.pretty().writeValue(file, openAPI);
+        } else {
+            Yaml.pretty().writeValue(file, openAPI);
+        }
+    }
+
+    /**
+     * @return a document built from the options and seed, identical on every call
+     */
+    public OpenAPI generate() {
+        random = new Random(seed);
+        names = 0;
+
+        Components documentComponents = new Components();
+
+        for (int i = 0; i < components; i++) {
+            documentComponents.addSchemas(componentName(i), component(i));
+        }
+
+        documentComponents.addResponses(SHARED_RESPONSE, new ApiResponse().description("shared error").content(body(randomComponentRef())));
+
+        Paths documentPaths = new Paths();
+
+        for (int i = 0; i < paths; i++) {
+            PathItem pathItem = new PathItem();
+            List<Parameter> pathParameters = new ArrayList<>();
+            StringBuilder path = new StringBuilder("/group" + (i % 10) + "/resource" + i);
+
+            for (int depth = 0; depth < pathDepth; depth++) {
+                String parameterName = "param" + depth;
+                path.append(depth % 2 == 0 ? "/" : "/items/").append("{").append(parameterName).append("}");
+                pathParameters.add(new PathParameter().name(parameterName).schema(depth % 2 == 0 ? new IntegerSchema() : new StringSchema()));
+            }
+
+            boolean parametersOnPathItem = random.nextBoolean(); // the generator reads path parameters from either
+
+            if (parametersOnPathItem && !pathParameters.isEmpty()) {
+                pathItem.parameters(pathParameters);
+            }
+
+            for (int m = 0; m < operationsPerPath; m++) {
+                Operation operation = operation(i, m, parametersOnPathItem ? null : pathParameters);
+
+                switch (METHODS.get(m)) {
+                    case "get": pathItem.get(operation); break;
+                    case "post": pathItem.post(operation); break;
+                    case "put": pathItem.put(operation); break;
+                    case "patch": pathItem.patch(operation); break;
+                    case "delete": pathItem.delete(operation); break;
+                    default: pathItem.head(operation);
+                }
+            }
+
+            documentPaths.addPathItem(path.toString(), pathItem);
+        }
+
+        return new OpenAPI().info(new Info().title("synthetic spec, seed " + seed).version("1")).paths(documentPaths).components(documentComponents);
+    }
+
+    private Operation operation(int pathIndex, int methodIndex, List<Parameter> pathParameters) {
+        Operation operation = new Operation().operationId("operation" + pathIndex + "-" + methodIndex).summary("synthetic operation " + pathIndex + "-" + methodIndex);
+        List<Parameter> parameters = new ArrayList<>(pathParameters != null ? pathParameters : new ArrayList<>());
+
+        for (int q = random.nextInt(3); q > 0; q--) {
+            parameters.add(new QueryParameter().name("query" + q).required(random.nextBoolean()).schema(random.nextBoolean() ? new IntegerSchema() : new StringSchema()));
+        }
+
+        if (!parameters.isEmpty()) {
+            operation.parameters(parameters);
+        }
+
+        if (methodIndex > 0 && random.nextInt(4) > 0) {
+            operation.requestBody(new RequestBody().content(body(bodySchema())));
+        }
+
+        ApiResponses responses = new ApiResponses();
+        responses.addApiResponse(methodIndex == 1 ? "201" : "200", response(bodySchema()));
+
+        switch (random.nextInt(6)) {
+            case 0: responses.addApiResponse("404", new ApiResponse().description("no content")); break;
+            case 1: responses.addApiResponse("400", new ApiResponse().$ref(RESPONSE_REF_PREFIX + SHARED_RESPONSE)); break;
+            case 2: responses.addApiResponse("default", response(randomComponentRef())); break;
+            case 3: responses.addApiResponse("406", new ApiResponse().description("unsupported").content(new Content().addMediaType(TEXT_PLAIN, new MediaType().schema(new StringSchema())))); break;
+            case 4: responses.addApiResponse("409", new ApiResponse().description("example").content(new Content().addMediaType(APPLICATION_JSON, new MediaType().example("{\"conflict\" : true}")))); break;
+            default: break;
+        }
+
+        if (random.nextDouble() < nxxRatio) {
+            responses.addApiResponse((4 + random.nextInt(2)) + (random.nextBoolean() ? "XX" : "xx"), response(randomComponentRef()));
+        }
+
+        return operation.responses(responses);
+    }
+
+    private Schema<?> bodySchema() {
+        refsLeft = REFS_PER_SCHEMA;
+
+        switch (random.nextInt(4)) {
+            case 0: return new ArraySchema().items(randomComponentRef());
+            case 1: return objectSchema(Math.max(0, schemaDepth - 2), null);
+            default: return randomComponentRef();
+        }
+    }
+
+    private ApiResponse response(Schema<?> schema) {
+        return new ApiResponse().description("synthetic response").content(body(schema));
+    }
+
+    private Content body(Schema<?> schema) {
+        String mediaType = random.nextDouble() < xmlRatio ? (random.nextBoolean() ? APPLICATION_XML : TEXT_XML) : APPLICATION_JSON;
+        return new Content().addMediaType(mediaType, new MediaType().schema(schema));
+    }
+
+    private Schema<?> component(int index) {
+        refsLeft = REFS_PER_SCHEMA;
+        Schema<?> schema = objectSchema(schemaDepth - 1, index);
+        XML xml = new XML().name(componentName(index));
+
+        if (random.nextInt(5) == 0) {
+            xml.prefix("ns" + index).namespace("http://synthetic.emarte.uk/ns" + index);
+        }
+
+        return schema.xml(xml);
+    }
+
+    /**
+     * @param depth levels of inline objects remaining below this one
+     * @param componentIndex the component being built, or null when building an inline body
+     * @return an object schema of fan out properties
+     */
+    private Schema<?> objectSchema(int depth, Integer componentIndex) {
+        Schema<?> schema = new ObjectSchema();
+
+        if (componentIndex == null) {
+            schema.xml(new XML().name("body" + names++));
+        }
+
+        for (int i = 0; i < fanOut; i++) {
+            String name = "property" + i;
+            int kind = random.nextInt(10);
+
+            if (kind < 5) {
+                schema.addProperties(name, scalar(random.nextInt(SCALAR_KINDS)));
+            } else if (kind == 5) {
+                Schema<?> attribute = scalar(random.nextInt(4)).xml(new XML().attribute(true).name("attribute" + i));
+                schema.addProperties(name, attribute);
+            } else if (kind == 6) {
+                ArraySchema array = new ArraySchema().items(random.nextBoolean() ? scalar(random.nextInt(SCALAR_KINDS)).xml(new XML().name("item" + i)) : nested(depth, componentIndex));
+
+                if (random.nextBoolean()) {
+                    array.xml(new XML().name("items" + i).wrapped(true));
+                }
+
+                schema.addProperties(name, array);
+            } else if (kind == 7 && depth > 0) {
+                ObjectSchema map = new ObjectSchema();
+                map.additionalProperties(objectSchema(0, componentIndex));
+                schema.addProperties(name, map.xml(new XML().name("map" + i)));
+            } else {
+                schema.addProperties(name, nested(depth, componentIndex));
+            }
+        }
+
+        return schema;
+    }
+
+    private Schema<?> nested(int depth, Integer componentIndex) {
+        if (depth > 0 && random.nextDouble() >= refRatio) {
+            return objectSchema(depth - 1, componentIndex).xml(new XML().name("nested" + names++));
+        }
+
+        if (refsLeft == 0) {
+            return scalar(random.nextInt(SCALAR_KINDS));
+        }
+
+        refsLeft--;
+
+        if (componentIndex == null) {
+            return randomComponentRef();
+        }
+
+        if (random.nextDouble() < recursiveRatio) {
+            return componentRef(componentIndex == 0 || random.nextBoolean() ? componentIndex : (componentIndex - 1) / REFS_PER_SCHEMA);
+        }
+
+        int child = componentIndex * REFS_PER_SCHEMA + 1 + random.nextInt(REFS_PER_SCHEMA);
+        return child < components ? componentRef(child) : scalar(random.nextInt(SCALAR_KINDS));
+    }
+
+    private Schema<?> scalar(int kind) {
+        switch (kind) {
+            case 0: return new StringSchema();
+            case 1: return new StringSchema().example("example" + random.nextInt(100));
+            case 2: return new StringSchema()._enum(Arrays.asList("first", "second", "third"));
+            case 3: return new StringSchema().format("uuid");
+            case 4: return new IntegerSchema();
+            case 5: return new IntegerSchema().format("int64").example(random.nextInt(1000));
+            case 6: return new IntegerSchema().minimum(new BigDecimal(random.nextInt(10)));
+            case 7: return new NumberSchema();
+            case 8: return new NumberSchema().format("float").minimum(new BigDecimal("1.5"));
+            case 9: return new NumberSchema().format("double").example(2.5);
+            case 10: return new BooleanSchema().example(true);
+            case 11: return new StringSchema().format("date-time");
+            default: return new BooleanSchema();
+        }
+    }
+
+    private Schema<?> randomComponentRef() {
+        return componentRef(random.nextInt(components));
+    }
+
+    private static Schema<?> componentRef(int index) {
+        return new Schema<>().$ref(REF_PREFIX + componentName(index));
+    }
+
+    private static String componentName(int index) {
+        return "Component" + index;
+    }
+}
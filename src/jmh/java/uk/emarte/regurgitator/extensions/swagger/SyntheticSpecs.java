@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.BooleanSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.NumberSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.media.XML;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the schemas and paths the benchmarks run against, so that every benchmark run measures the same
+ * inputs.
+ */
+class SyntheticSpecs {
+    static final String REF_PREFIX = "#/components/schemas/";
+
+    private static final int FLAT_PROPERTIES = 20, WIDE_PROPERTIES = 200, DEEP_LEVELS = 20;
+
+    /**
+     * the shapes of schema the renderers are benchmarked against
+     */
+    enum Shape {
+        /** one object of scalar properties */
+        flat,
+        /** a chain of objects, each referencing the next */
+        deep,
+        /** one object of many properties, a tenth of them references to other objects */
+        wide,
+        /** a tree node referencing itself */
+        recursive
+    }
+
+    /**
+     * @param shape
+     * @param components the components any referenced schemas are added to
+     * @return the root schema of the given shape
+     */
+    static Schema<?> schema(Shape shape, Components components) {
+        switch (shape) {
+            case flat: return flatObject("flat");
+            case deep: {
+                for (int level = 0; level < DEEP_LEVELS; level++) {
+                    Schema<?> schema = flatObject("level" + level);
+
+                    if (level < DEEP_LEVELS - 1) {
+                        schema.addProperties("child", new Schema<>().$ref(REF_PREFIX + "level" + (level + 1)));
+                    }
+
+                    components.addSchemas("level" + level, schema);
+                }
+
+                return new Schema<>().$ref(REF_PREFIX + "level0");
+            }
+            case wide: {
+                Schema<?> schema = new ObjectSchema().xml(new XML().name("wide"));
+
+                for (int i = 0; i < WIDE_PROPERTIES; i++) {
+                    if (i % 10 == 0) {
+                        components.addSchemas("part" + i, flatObject("part" + i));
+                        schema.addProperties("part" + i, new Schema<>().$ref(REF_PREFIX + "part" + i));
+                    } else {
+                        schema.addProperties("property" + i, scalar(i));
+                    }
+                }
+
+                return schema;
+            }
+            case recursive: {
+                Schema<?> node = flatObject("node");
+                node.addProperties("children", new ArraySchema().items(new Schema<>().$ref(REF_PREFIX + "node")));
+                node.addProperties("parent", new Schema<>().$ref(REF_PREFIX + "node"));
+                components.addSchemas("node", node);
+                return new Schema<>().$ref(REF_PREFIX + "node");
+            }
+            default: throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+    }
+
+    /**
+     * @param count
+     * @return templated paths, each with two path parameters
+     */
+    static List<String> templatedPaths(int count) {
+        List<String> paths = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            paths.add("/group" + (i / 100) + "/resource" + i + "/{id}/items/{itemId}");
+        }
+
+        return paths;
+    }
+
+    private static Schema<?> flatObject(String name) {
+        Schema<?> schema = new ObjectSchema().xml(new XML().name(name));
+
+        for (int i = 0; i < FLAT_PROPERTIES; i++) {
+            schema.addProperties("property" + i, scalar(i));
+        }
+
+        return schema;
+    }
+
+    private static Schema<?> scalar(int index) {
+        switch (index % 4) {
+            case 0: return new StringSchema();
+            case 1: return new IntegerSchema().format("int64");
+            case 2: return new NumberSchema().format("double");
+            default: return new BooleanSchema();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.RG;
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.writeAttributeIfPresent;
+
+class AtIndexProcessor implements ValueProcessor {
+    @JsonProperty private final String kind = "at-index-processor";
+    @JsonProperty private final String value;
+
+    AtIndexProcessor(int index) {
+        this.value = "" + index;
+    }
+
+    @Override
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RG + kind);
+        writeAttributeIfPresent(writer, "value", value);
+        writer.writeEndElement();
+    }
+}
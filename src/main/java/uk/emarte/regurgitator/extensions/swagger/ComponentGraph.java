@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+import java.util.*;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Index of the component schemas of an open api file and the references between them, built once per
+ * generation run. Components that can reach themselves through their references are marked recursive,
+ * so that example rendering can stop where a reference cycle closes. Components holding a value generated
+ * afresh on each render, directly or through their references, are marked too.
+ */
+class ComponentGraph {
+    private final Map<String, Schema<?>> schemas = new LinkedHashMap<>();
+    private final Map<String, RequestBody> requestBodies;
+    private final Map<String, ApiResponse> responses;
+    private final Map<String, Set<String>> references = new HashMap<>();
+    private final Set<String> recursive = new HashSet<>();
+    private final Set<String> generatedValues = new HashSet<>();
+
+    ComponentGraph(Components components) {
+        if (components != null && components.getSchemas() != null) {
+            components.getSchemas().forEach(schemas::put);
+        }
+
+        this.requestBodies = components != null && components.getRequestBodies() != null ? components.getRequestBodies() : emptyMap();
+        this.responses = components != null && components.getResponses() != null ? components.getResponses() : emptyMap();
+
+        Set<String> generatedValueHolders = new HashSet<>();
+
+        for (Map.Entry<String, Schema<?>> entry : schemas.entrySet()) {
+            Set<String> componentReferences = new LinkedHashSet<>();
+
+            if (collectReferences(entry.getValue(), componentReferences, Collections.newSetFromMap(new IdentityHashMap<>()))) {
+                generatedValueHolders.add(entry.getKey());
+            }
+
+            references.put(entry.getKey(), componentReferences);
+        }
+
+        findRecursiveComponents();
+        findComponentsWithGeneratedValues(generatedValueHolders);
+    }
+
+    static String componentName(String ref) {
+        return ref.contains("/") ? ref.substring(ref.lastIndexOf("/") + 1) : ref;
+    }
+
+    Schema<?> schema(String componentName) {
+        return schemas.get(componentName);
+    }
+
+    RequestBody requestBody(String ref) {
+        return requestBodies.get(componentName(ref));
+    }
+
+    ApiResponse response(String ref) {
+        return responses.get(componentName(ref));
+    }
+
+    boolean isRecursive(String componentName) {
+        return recursive.contains(componentName);
+    }
+
+    int recursiveCount() {
+        return recursive.size();
+    }
+
+    /**
+     * @param componentName
+     * @return whether an example of the component holds a value generated afresh each time it is rendered
+     */
+    boolean hasGeneratedValues(String componentName) {
+        return generatedValues.contains(componentName);
+    }
+
+    /**
+     * a date-time or uuid without an example or enum to take its value from, for which the example
+     * renderers generate a new value each time
+     *
+     * @param schema
+     * @return
+     */
+    static boolean isGeneratedValue(Schema<?> schema) {
+        return schema.getExample() == null && (schema.getEnum() == null || schema.getEnum().isEmpty()) && ("date-time".equals(schema.getFormat()) || "uuid".equals(schema.getFormat()));
+    }
+
+    /**
+     * collects the components referenced from within a schema
+     *
+     * @param schema
+     * @param componentReferences
+     * @param visited
+     * @return whether the schema itself holds a generated value
+     */
+    @SuppressWarnings("rawtypes")
+    private static boolean collectReferences(Schema<?> schema, Set<String> componentReferences, Set<Schema<?>> visited) {
+        if (schema == null || !visited.add(schema)) {
+            return false;
+        }
+
+        boolean generatedValue = isGeneratedValue(schema);
+
+        if (schema.get$ref() != null) {
+            componentReferences.add(componentName(schema.get$ref()));
+        }
+
+        if (schema.getProperties() != null) {
+            for (Schema propertySchema : schema.getProperties().values()) {
+                generatedValue |= collectReferences(propertySchema, componentReferences, visited);
+            }
+        }
+
+        if (schema.getAdditionalProperties() instanceof Schema) {
+            generatedValue |= collectReferences((Schema<?>) schema.getAdditionalProperties(), componentReferences, visited);
+        }
+
+        generatedValue |= collectReferences(schema.getItems(), componentReferences, visited);
+        generatedValue |= collectReferences(schema.getNot(), componentReferences, visited);
+
+        if (schema instanceof ComposedSchema) {
+            ComposedSchema composedSchema = (ComposedSchema) schema;
+
+            for (List<Schema> subSchemas : Arrays.asList(composedSchema.getAllOf(), composedSchema.getAnyOf(), composedSchema.getOneOf())) {
+                if (subSchemas != null) {
+                    for (Schema subSchema : subSchemas) {
+                        generatedValue |= collectReferences(subSchema, componentReferences, visited);
+                    }
+                }
+            }
+        }
+
+        return generatedValue;
+    }
+
+    /**
+     * marks the components holding a generated value, and every component that reaches one of them through
+     * its references
+     *
+     * @param holders
+     */
+    private void findComponentsWithGeneratedValues(Set<String> holders) {
+        Map<String, Set<String>> referencedBy = new HashMap<>();
+        references.forEach((name, referenced) -> referenced.forEach(r -> referencedBy.computeIfAbsent(r, k -> new HashSet<>()).add(name)));
+        Deque<String> pending = new ArrayDeque<>(holders);
+
+        while (!pending.isEmpty()) {
+            String name = pending.pop();
+
+            if (generatedValues.add(name)) {
+                pending.addAll(referencedBy.getOrDefault(name, Collections.emptySet()));
+            }
+        }
+    }
+
+    /**
+     * tarjan's strongly connected components, iteratively so that long reference chains cannot exhaust the
+     * stack; any component in a component of more than one, or referencing itself, is recursive
+     */
+    private void findRecursiveComponents() {
+        Map<String, Integer> indexes = new HashMap<>();
+        Map<String, Integer> lowLinks = new HashMap<>();
+        Deque<String> componentStack = new ArrayDeque<>();
+        Set<String> onStack = new HashSet<>();
+
+        for (String root : references.keySet()) {
+            if (indexes.containsKey(root)) {
+                continue;
+            }
+
+            Deque<String> visitStack = new ArrayDeque<>();
+            Deque<Iterator<String>> iteratorStack = new ArrayDeque<>();
+            visit(root, indexes, lowLinks, componentStack, onStack, visitStack, iteratorStack);
+
+            while (!visitStack.isEmpty()) {
+                String name = visitStack.peek();
+                Iterator<String> iterator = iteratorStack.peek();
+
+                if (iterator.hasNext()) {
+                    String referenced = iterator.next();
+
+                    if (!references.containsKey(referenced)) {
+                        continue;
+                    }
+
+                    if (!indexes.containsKey(referenced)) {
+                        visit(referenced, indexes, lowLinks, componentStack, onStack, visitStack, iteratorStack);
+                    } else if (onStack.contains(referenced)) {
+                        lowLinks.put(name, Math.min(lowLinks.get(name), indexes.get(referenced)));
+                    }
+                } else {
+                    visitStack.pop();
+                    iteratorStack.pop();
+
+                    if (!visitStack.isEmpty()) {
+                        String parent = visitStack.peek();
+                        lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLinks.get(name)));
+                    }
+
+                    if (lowLinks.get(name).equals(indexes.get(name))) {
+                        List<String> stronglyConnected = new ArrayList<>();
+                        String member;
+
+                        do {
+                            member = componentStack.pop();
+                            onStack.remove(member);
+                            stronglyConnected.add(member);
+                        } while (!member.equals(name));
+
+                        if (stronglyConnected.size() > 1 || references.get(name).contains(name)) {
+                            recursive.addAll(stronglyConnected);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void visit(String name, Map<String, Integer> indexes, Map<String, Integer> lowLinks, Deque<String> componentStack, Set<String> onStack, Deque<String> visitStack, Deque<Iterator<String>> iteratorStack) {
+        indexes.put(name, indexes.size());
+        lowLinks.put(name, indexes.get(name));
+        componentStack.push(name);
+        onStack.add(name);
+        visitStack.push(name);
+        iteratorStack.push(references.get(name).iterator());
+    }
+}
@@ -6,12 +6,13 @@ package uk.emarte.regurgitator.extensions.swagger;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
 import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.RG;
-import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.addAttributeIfPresent;
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.writeAttributeIfPresent;
 
 @JsonInclude(NON_NULL)
 class Condition implements XmlAware {
@@ -28,12 +29,12 @@ class Condition implements XmlAware {
     }
 
     @Override
-    public Element toXml(Document document, Element parentElement) {
-        Element element = document.createElement(RG + "condition");
-        addAttributeIfPresent(element, "source", source);
-        addAttributeIfPresent(element, "equals", equals);
-        addAttributeIfPresent(element, "matches", matches);
-        addAttributeIfPresent(element, "exists", exists);
-        return element;
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RG + "condition");
+        writeAttributeIfPresent(writer, "source", source);
+        writeAttributeIfPresent(writer, "equals", equals);
+        writeAttributeIfPresent(writer, "matches", matches);
+        writeAttributeIfPresent(writer, "exists", exists);
+        writer.writeEndElement();
     }
 }
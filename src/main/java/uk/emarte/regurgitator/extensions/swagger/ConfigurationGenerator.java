@@ -4,7 +4,6 @@
  */
 package uk.emarte.regurgitator.extensions.swagger;
 
-import io.swagger.parser.OpenAPIParser;
 import io.swagger.v3.oas.models.*;
 import io.swagger.v3.oas.models.media.Content;
 import io.swagger.v3.oas.models.media.MediaType;
@@ -12,27 +11,30 @@ import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.parameters.RequestBody;
 import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.swagger.v3.oas.models.responses.ApiResponses;
-import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import org.apache.commons.lang3.StringUtils;
-import org.w3c.dom.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import uk.emarte.regurgitator.extensions.swagger.postman.Collection;
 import uk.emarte.regurgitator.extensions.swagger.postman.*;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static java.lang.Long.parseLong;
-import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static uk.emarte.regurgitator.extensions.swagger.postman.Collection.PLACEHOLDER;
@@ -41,32 +43,33 @@ import static uk.emarte.regurgitator.extensions.swagger.postman.Collection.PLACE
  * Generates regurgitator configuration from open api (v3) 'swagger' files
  */
 public class ConfigurationGenerator {
-    private static final String USAGE_TEXT = "Usage: java uk.emarte.regurgitator.extensions.swagger.ConfigurationGenerator swaggerFile.[json|yaml] /outputDirectory xml|json";
-    private static final String NUMERIC = "0-9", ALPHA_NUMERIC = "A-Za-z0-9-";
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationGenerator.class);
+    private static final String USAGE_TEXT = "Usage: java uk.emarte.regurgitator.extensions.swagger.ConfigurationGenerator swaggerFile.[json|yaml] /outputDirectory|output.[zip|jar] xml|json [options]" + System.lineSeparator() + GenerationOptions.USAGE_TEXT;
     private static final String REQUEST_METADATA_REQUEST_URI = "request-metadata:request-uri";
     private static final String REQUEST_METADATA_QUERY_STRING = "request-metadata:query-string";
-    private static final String REQUEST_METADATA_METHOD = "request-metadata:method";
+    private static final String PATH_PARAMETER_VALUES = "path-parameter-values", PARAMETERS_PATH_PARAMETER_VALUES = "parameters:" + PATH_PARAMETER_VALUES, LIST_OF_STRING = "LIST_OF_STRING";
     private static final String SLASH_SUBSTITUTE = "-", CURLY_BRACE_SUBSTITUTE = "^";
     private static final String JSON = "json", XML = "xml", OK = "200", DEFAULT = "default", NO_CONTENT = "no content";
-    private static final String STRING = "string", INTEGER = "integer", ARRAY = "array";
+    private static final String ARRAY = "array";
     private static final String RESPONSE_CODE_HEADER = "mock-response-code";
     private static final String REQUEST_HEADERS_MOCK_RESPONSE_CODE = "request-headers:mock-response-code", RESPONSE_METADATA_CONTENT_TYPE = "response-metadata:content-type", RESPONSE_METADATA_STATUS_CODE = "response-metadata:status-code";
     private static final String NUM_XX_REGEX = "^([2-5])(XX|xx)$", ZERO_ZERO = "00";
     private static final String PLAIN_TEXT = "text/plain";
+    private static final String ASSETS_DIRECTORY = "assets";
     private static final List<String> APPLICATION_XMLS = Arrays.asList("application/xml", "text/xml");
     private static final List<String> APPLICATION_JSONS = Arrays.asList("application/json", "application/vnd.amadeus+json");
 
     private enum OutputType {
         json {
             @Override
-            void save(Object object, FileOutputStream fileOutputStream) throws IOException {
-                JsonUtil.saveToJson(object, fileOutputStream);
+            void save(Object object, OutputStream outputStream) throws IOException {
+                JsonUtil.saveToJson(object, outputStream);
             }
         },
         xml {
             @Override
-            void save(Object object, FileOutputStream fileOutputStream) throws ParserConfigurationException, TransformerException {
-                XmlUtil.saveToXml((RegurgitatorConfiguration) object, fileOutputStream);
+            void save(Object object, OutputStream outputStream) throws IOException, XMLStreamException {
+                XmlUtil.saveToXml((RegurgitatorConfiguration) object, outputStream);
             }
         };
 
@@ -74,22 +77,82 @@ public class ConfigurationGenerator {
             return Arrays.stream(values()).anyMatch(ot -> ot.name().equals(type));
         }
 
-        abstract void save(Object object, FileOutputStream fileOutputStream) throws IOException, ParserConfigurationException, TransformerException;
+        abstract void save(Object object, OutputStream outputStream) throws IOException, XMLStreamException;
     }
 
     /**
-     * @param args input arguments - [0] open api 'swagger' file path, [1] output directory path, [2] output type
+     * @param args input arguments - [0] open api 'swagger' file path, [1] output directory or zip file path, [2] output type, [3..] generation options
      * @throws GenerationException if a problem is encountered whilst generating the configuration
-     * @see #generateConfiguration(File, File, String)
+     * @see #generateConfiguration(File, File, String, GenerationOptions)
      */
     public static void main(String[] args) throws GenerationException {
-        if (args.length != 3) {
+        if (args.length < 3) {
             System.err.println("Invalid argument count: " + args.length);
             System.err.println(USAGE_TEXT);
             System.exit(1);
         }
 
-        generateConfiguration(new File(args[0]), new File(args[1]), args[2]);
+        GenerationOptions options = null;
+
+        try {
+            options = GenerationOptions.parse(Arrays.copyOfRange(args, 3, args.length));
+        } catch (IllegalArgumentException iae) {
+            System.err.println(iae.getMessage());
+            System.err.println(USAGE_TEXT);
+            System.exit(1);
+        }
+
+        File swaggerFile = new File(args[0]), output = new File(args[1]);
+        boolean zip = output.getName().endsWith(".zip") || output.getName().endsWith(".jar");
+        List<String> errors = validate(swaggerFile, zip ? output.getAbsoluteFile().getParentFile() : output, args[2]);
+
+        if (zip && (options.isIncremental() || options.isWatch())) {
+            errors.add("Incremental generation needs an output directory");
+        }
+
+        if (options.isWatch() && options.isSingleDocument()) {
+            errors.add("Single document generation cannot be watched");
+        }
+
+        if (!errors.isEmpty()) {
+            errors.forEach(System.err::println);
+            System.err.println(USAGE_TEXT);
+            System.exit(1);
+        }
+
+        if (options.isWatch()) {
+            SpecWatcher.watch(swaggerFile, output, args[2], options);
+        } else if (zip) {
+            try (OutputSink sink = new ZipOutputSink(output.toPath())) {
+                generateConfiguration(swaggerFile, sink, args[2], options);
+            } catch (IOException ioe) {
+                throw new GenerationException("Error writing zip file", ioe);
+            }
+        } else {
+            generateConfiguration(swaggerFile, output, args[2], options);
+        }
+    }
+
+    private static List<String> validate(File swaggerFile, File outputDirectory, String outputTypeStr) {
+        List<String> errors = new ArrayList<>();
+
+        if (!swaggerFile.exists()) {
+            errors.add("Swagger file does not exist");
+        }
+
+        if (!outputDirectory.isDirectory()) {
+            errors.add("Output directory is not a directory");
+        }
+
+        if (!outputDirectory.exists()) {
+            errors.add("Output directory does not exist");
+        }
+
+        if (!OutputType.contains(outputTypeStr)) {
+            errors.add("Invalid output type: " + outputTypeStr);
+        }
+
+        return errors;
     }
 
     /**
@@ -102,65 +165,153 @@ public class ConfigurationGenerator {
      * @throws GenerationException if a problem is encountered whilst generating the configuration
      */
     public static void generateConfiguration(File swaggerFile, File outputDirectory, String outputTypeStr) throws GenerationException {
-        if (!(swaggerFile.exists() && outputDirectory.isDirectory() && outputDirectory.exists() && OutputType.contains(outputTypeStr))) {
-            if (!swaggerFile.exists()) {
-                System.err.println("Swagger file does not exist");
-            }
+        generateConfiguration(swaggerFile, outputDirectory, outputTypeStr, new GenerationOptions());
+    }
 
-            if (!outputDirectory.isDirectory()) {
-                System.err.println("Output directory is not a directory");
-            }
+    /**
+     * generates a set of regurgitator configuration from any open api 'swagger' file, using the given options.
+     * NOTE: both file parameters need to exist.
+     *
+     * @param swaggerFile     an open api 'swagger' file from which to generate configuration
+     * @param outputDirectory a directory into which to save the configuration files
+     * @param outputTypeStr   the desired document type for the configuration files [json|xml]
+     * @param options         options controlling how the configuration is generated
+     * @throws GenerationException if a problem is encountered whilst generating the configuration
+     */
+    public static void generateConfiguration(File swaggerFile, File outputDirectory, String outputTypeStr, GenerationOptions options) throws GenerationException {
+        List<String> errors = validate(swaggerFile, outputDirectory, outputTypeStr);
 
-            if (!outputDirectory.exists()) {
-                System.err.println("Output directory does not exist");
-            }
+        if (!errors.isEmpty()) {
+            throw new GenerationException(String.join(", ", errors));
+        }
 
-            if (!OutputType.contains(outputTypeStr)) {
-                System.err.println("Invalid output type: " + outputTypeStr);
-            }
+        generateConfiguration(swaggerFile, new DirectoryOutputSink(outputDirectory), outputTypeStr, options);
+    }
 
-            System.err.println(USAGE_TEXT);
-            System.exit(1);
+    /**
+     * generates a set of regurgitator configuration from any open api 'swagger' file into an output sink, using
+     * the given options. the sink is left open. incremental generation needs a {@link DirectoryOutputSink}
+     *
+     * @param swaggerFile   an open api 'swagger' file from which to generate configuration
+     * @param sink          the destination for the configuration files
+     * @param outputTypeStr the desired document type for the configuration files [json|xml]
+     * @param options       options controlling how the configuration is generated
+     * @throws GenerationException if a problem is encountered whilst generating the configuration
+     */
+    public static void generateConfiguration(File swaggerFile, OutputSink sink, String outputTypeStr, GenerationOptions options) throws GenerationException {
+        if (!swaggerFile.exists()) {
+            throw new GenerationException("Swagger file does not exist");
+        }
+
+        if (!OutputType.contains(outputTypeStr)) {
+            throw new GenerationException("Invalid output type: " + outputTypeStr);
+        }
+
+        if (options.isIncremental() && !(sink instanceof DirectoryOutputSink)) {
+            throw new GenerationException("Incremental generation needs an output directory");
+        }
+
+        if (options.isIncremental() && options.isSingleDocument()) {
+            throw new GenerationException("Single document generation cannot be incremental");
         }
 
         OutputType outputType = OutputType.valueOf(outputTypeStr);
+        File outputDirectory = sink instanceof DirectoryOutputSink ? ((DirectoryOutputSink) sink).getDirectory() : null;
 
         try {
-            System.out.println("parsing open api file: " + swaggerFile.getName());
-            SwaggerParseResult result = new OpenAPIParser().readLocation(swaggerFile.getAbsolutePath(), null, null);
-            OpenAPI openAPI = result.getOpenAPI();
+            GenerationMetrics metrics = new GenerationMetrics();
+            long phaseStart = System.nanoTime();
+            progress(options, "parsing open api file: {}", swaggerFile.getName());
+            OpenAPI openAPI = options.getSpecCache() != null ? new SpecCache(options.getSpecCache()).read(swaggerFile) : SpecCache.parse(swaggerFile);
             Paths paths = openAPI.getPaths();
-            List<Step> steps = new ArrayList<>();
-            List<Rule> rules = new ArrayList<>();
+            List<Route> routes = new ArrayList<>();
+            OperationFilter filter = options.getOperationFilter();
+            Map<String, PathTemplate> pathTemplates = new HashMap<>();
+            int operations = 0;
+
+            for (String path : paths.keySet()) {
+                PathItem pathItem = paths.get(path);
+                String escapedPath = escapeUrlParts(path);
+                operations += addRoute(pathItem.getGet(), path, escapedPath, pathItem, Method.GET, filter, pathTemplates, routes);
+                operations += addRoute(pathItem.getPut(), path, escapedPath, pathItem, Method.PUT, filter, pathTemplates, routes);
+                operations += addRoute(pathItem.getPost(), path, escapedPath, pathItem, Method.POST, filter, pathTemplates, routes);
+                operations += addRoute(pathItem.getPatch(), path, escapedPath, pathItem, Method.PATCH, filter, pathTemplates, routes);
+                operations += addRoute(pathItem.getDelete(), path, escapedPath, pathItem, Method.DELETE, filter, pathTemplates, routes);
+                operations += addRoute(pathItem.getHead(), path, escapedPath, pathItem, Method.HEAD, filter, pathTemplates, routes);
+            }
+
+            if (!filter.isEmpty()) {
+                progress(options, "selected {} of {} operation(s)", routes.size(), operations);
+            }
+
+            metrics.phase("parse", phaseStart);
+            progress(options, "processing {} route(s), {} operation(s) using {} thread(s)", paths.size(), routes.size(), options.getThreads());
+            phaseStart = System.nanoTime();
+            ComponentGraph graph = new ComponentGraph(openAPI.getComponents());
+            progress(options, "indexed component references, {} recursive component(s)", graph.recursiveCount());
+            GenerationManifest manifest = options.isIncremental() ? GenerationManifest.load(outputDirectory) : null;
+            OperationFingerprinter fingerprinter = options.isIncremental() ? new OperationFingerprinter(openAPI.getComponents(), outputType + "|" + options.outputSignature()) : null;
+            ExampleCache exampleCache = new ExampleCache(graph);
+            GenerationContext context = new GenerationContext(graph, exampleCache, options, sink, fingerprinter, manifest, metrics);
+            metrics.phase("index", phaseStart);
+            phaseStart = System.nanoTime();
+            ProgressReporter progressReporter = new ProgressReporter(metrics, routes.size(), options.isQuiet());
+
+            try {
+                processRoutes(routes, context, outputType);
+            } finally {
+                progressReporter.close();
+            }
+
+            if (manifest != null) {
+                removeDeletedOperations(routes, manifest, (DirectoryOutputSink) sink);
+            }
+
+            metrics.phase("operations", phaseStart);
+            phaseStart = System.nanoTime();
 
             List<Item> postmanItems = new ArrayList<>();
             Set<Variable> postmanVariables = new TreeSet<>();
 
-            System.out.println("processing " + paths.size() + " route(s)");
-            for (String path : paths.keySet()) {
-                PathItem pathItem = paths.get(path);
-                path = escapeUrlParts(path);
-                processOperation(pathItem.getGet(), path, pathItem, Method.GET, steps, rules, openAPI.getComponents(), outputDirectory, outputType, postmanItems, postmanVariables);
-                processOperation(pathItem.getPut(), path, pathItem, Method.PUT, steps, rules, openAPI.getComponents(), outputDirectory, outputType, postmanItems, postmanVariables);
-                processOperation(pathItem.getPost(), path, pathItem, Method.POST, steps, rules, openAPI.getComponents(), outputDirectory, outputType, postmanItems, postmanVariables);
-                processOperation(pathItem.getPatch(), path, pathItem, Method.PATCH, steps, rules, openAPI.getComponents(), outputDirectory, outputType, postmanItems, postmanVariables);
-                processOperation(pathItem.getDelete(), path, pathItem, Method.DELETE, steps, rules, openAPI.getComponents(), outputDirectory, outputType, postmanItems, postmanVariables);
-                processOperation(pathItem.getHead(), path, pathItem, Method.HEAD, steps, rules, openAPI.getComponents(), outputDirectory, outputType, postmanItems, postmanVariables);
+            for (Route route : routes) {
+                postmanItems.add(route.getPostmanItem());
+                postmanVariables.addAll(route.getPostmanVariables());
             }
 
-            System.out.println("creating routing default step");
-            String defaultStepId = "default-route";
-            steps.add(new CreateHttpResponse(defaultStepId, "regurgitator : unmapped operation", null, 500L, PLAIN_TEXT));
+            progress(options, "creating {} routing decision{}{}", options.getRouting(), options.isPartitionByMethod() ? ", partitioned by method" : "", options.isStaticRoutesFirst() ? ", static routes first" : "");
+            Decision decision = RoutingDecisionBuilder.buildRoutingDecision(routes, options);
+
+            RegurgitatorConfiguration routingConfiguration = new RegurgitatorConfiguration(singletonList(decision));
+            String routingFileName = "regurgitator-configuration." + outputType;
 
-            System.out.println("creating routing decision");
-            Decision decision = new Decision("routing-decision", steps, rules, defaultStepId);
+            if (isChanged(routingFileName, routingConfiguration, manifest, sink)) {
+                progress(options, "saving routing configuration");
+                outputType.save(routingConfiguration, context.newOutputStream(routingFileName));
+            } else {
+                progress(options, "routing configuration unchanged");
+            }
 
-            System.out.println("### saving routing configuration");
-            outputType.save(new RegurgitatorConfiguration(singletonList(decision)), new FileOutputStream(new File(outputDirectory, "regurgitator-configuration." + outputType), false));
+            metrics.phase("routing", phaseStart);
+            phaseStart = System.nanoTime();
 
             ItemGroup postmanItemGroup = new ItemGroup("All Requests", "All requests for swagger file " + swaggerFile.getName(), postmanItems.stream().filter(Objects::nonNull).toArray(Item[]::new));
             Collection postmanCollection = new Collection(new Info("Swagger Collection - " + swaggerFile.getName(), "Collection for swagger file " + swaggerFile.getName(), "1", "https://schema.getpostman.com/json/collection/v2.1.0/collection.json"), new ItemGroup[]{postmanItemGroup}, postmanVariables.stream().filter(Objects::nonNull).toArray(Variable[]::new));
-            JsonUtil.saveToJson(postmanCollection, new FileOutputStream(new File(outputDirectory, "postman.json"), false));
+            String postmanFileName = "postman.json";
+
+            if (isChanged(postmanFileName, postmanCollection, manifest, sink)) {
+                JsonUtil.saveToJson(postmanCollection, context.newOutputStream(postmanFileName));
+            }
+
+            metrics.phase("postman", phaseStart);
+
+            if (manifest != null) {
+                manifest.save(outputDirectory);
+            }
+
+            if (options.isMetricsReport()) {
+                progress(options, "saving metrics report: {}", GenerationMetrics.REPORT_FILE_NAME);
+                JsonUtil.saveToJson(metrics.report(exampleCache, options), sink.newOutputStream(GenerationMetrics.REPORT_FILE_NAME));
+            }
         } catch (GenerationException ge) {
             throw ge;
         } catch (Exception e) {
@@ -168,6 +319,19 @@ public class ConfigurationGenerator {
         }
     }
 
+    /**
+     * logs progress of a generation run, unless quiet
+     *
+     * @param options
+     * @param format
+     * @param arguments
+     */
+    private static void progress(GenerationOptions options, String format, Object... arguments) {
+        if (!options.isQuiet()) {
+            LOGGER.info(format, arguments);
+        }
+    }
+
     /**
      * *
      * @param path
@@ -186,147 +350,322 @@ public class ConfigurationGenerator {
     /**
      * *
      * @param operation
+     * @param specPath the path as written in the spec, for selection
      * @param path
      * @param pathItem
      * @param method
-     * @param steps
-     * @param rules
-     * @param components
-     * @param outputDirectory
-     * @param outputType
-     * @param postmanItems
-     * @param postmanVariables
-     * @throws IOException
-     * @throws ParserConfigurationException
-     * @throws TransformerException
-     * @throws GenerationException
+     * @param filter
+     * @param pathTemplates templates compiled so far, shared by every operation on the same path
+     * @param routes
+     * @return the number of operations found, whether selected or not
      */
-    private static void processOperation(Operation operation, String path, PathItem pathItem, Method method, List<Step> steps, List<Rule> rules, Components components, File outputDirectory, OutputType outputType, List<Item> postmanItems, Set<Variable> postmanVariables) throws IOException, ParserConfigurationException, TransformerException, GenerationException {
-        if (operation != null) {
-            System.out.println("processing route " + method + " " + path);
+    private static int addRoute(Operation operation, String specPath, String path, PathItem pathItem, Method method, OperationFilter filter, Map<String, PathTemplate> pathTemplates, List<Route> routes) {
+        if (operation == null) {
+            return 0;
+        }
+
+        if (filter.selects(specPath, method, operation)) {
+            routes.add(new Route("route-" + (routes.size() + 1), operation, pathTemplates.computeIfAbsent(path, PathTemplate::compile), pathItem, method));
+        } else {
+            LOGGER.debug("skipping unselected operation: {} {}", method, specPath);
+        }
 
-            File pathDirectory = new File(outputDirectory, method + path.replace("/", SLASH_SUBSTITUTE).replace("{", CURLY_BRACE_SUBSTITUTE).replace("}", CURLY_BRACE_SUBSTITUTE));
+        return 1;
+    }
 
-            if (!pathDirectory.mkdirs()) {
-                throw new GenerationException("A configuration directory already exists: " + pathDirectory.getName());
+    /**
+     * removes the directories of operations generated previously but no longer in the spec
+     *
+     * @param routes
+     * @param manifest
+     * @param sink
+     * @throws IOException
+     */
+    private static void removeDeletedOperations(List<Route> routes, GenerationManifest manifest, DirectoryOutputSink sink) throws IOException {
+        Set<String> directoryNames = routes.stream().map(ConfigurationGenerator::directoryName).collect(Collectors.toSet());
+
+        for (String directoryName : manifest.getOperationNames()) {
+            if (!directoryNames.contains(directoryName)) {
+                LOGGER.debug("removing deleted route {}", directoryName);
+                sink.delete(directoryName);
+                manifest.removeOperation(directoryName);
             }
+        }
+    }
+
+    /**
+     * whether a top level file needs saving, recording the fingerprint of its contents in the manifest
+     * when generating incrementally. without a manifest every file is always saved
+     *
+     * @param fileName
+     * @param contents
+     * @param manifest
+     * @param sink
+     * @return
+     * @throws IOException
+     */
+    private static boolean isChanged(String fileName, Object contents, GenerationManifest manifest, OutputSink sink) throws IOException {
+        if (manifest == null) {
+            return true;
+        }
+
+        String fingerprint = JsonUtil.fingerprint(contents);
+        boolean changed = !fingerprint.equals(manifest.getFileFingerprint(fileName)) || !((DirectoryOutputSink) sink).exists(fileName);
+        manifest.putFileFingerprint(fileName, fingerprint);
+        return changed;
+    }
 
-            RequestBody requestBody = operation.getRequestBody();
-            String requestContent = null;
+    private static String directoryName(Route route) {
+        return route.getMethod() + route.getPath().replace("/", SLASH_SUBSTITUTE).replace("{", CURLY_BRACE_SUBSTITUTE).replace("}", CURLY_BRACE_SUBSTITUTE);
+    }
 
-            if (requestBody != null) {
-                System.out.println("### request");
-                requestContent = processRequest(requestBody, components, pathDirectory);
+    /**
+     * processes every route, either in turn or spread across a pool of worker threads. each route is
+     * generated into its own directory, so workers share nothing but the read-only open api model;
+     * results are held on each route so callers can assemble them in spec order
+     *
+     * @param routes
+     * @param context
+     * @param outputType
+     * @throws Exception
+     */
+    private static void processRoutes(List<Route> routes, GenerationContext context, OutputType outputType) throws Exception {
+        int threads = context.getOptions().getThreads();
+
+        if (threads <= 1 || routes.size() <= 1) {
+            for (Route route : routes) {
+                processOperation(route, context, outputType);
             }
 
-            ApiResponses responses = operation.getResponses();
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, routes.size()));
 
-            List<Step> responseDecisionSteps = new ArrayList<>();
-            List<Rule> responseDecisionRules = new ArrayList<>();
-            Map<String, String> responseContents = new LinkedHashMap<>();
+        try {
+            List<Future<Route>> futures = new ArrayList<>();
 
-            if (responses != null) {
-                for (String code : responses.keySet()) {
-                    responseContents.put(code, processResponse(code, responses.get(code), responseDecisionSteps, responseDecisionRules, components, pathDirectory));
+            for (Route route : routes) {
+                futures.add(executor.submit(() -> {
+                    processOperation(route, context, outputType);
+                    return route;
+                }));
+            }
+
+            for (Future<Route> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ee) {
+                    throw ee.getCause() instanceof Exception ? (Exception) ee.getCause() : ee;
                 }
-            } else {
-                throw new IllegalStateException("eh ???");
             }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-            System.out.println("creating path param extract steps");
-            List<Parameter> allParams = new ArrayList<>(pathItem.getParameters() != null ? pathItem.getParameters() : emptyList());
-            allParams.addAll(operation.getParameters() != null ? operation.getParameters() : emptyList());
-            List<Step> parameterStepsForPath = buildCreateParameterStepsForPath(path, allParams);
-            List<Step> stepsForConfiguration = new ArrayList<>(parameterStepsForPath);
-            stepsForConfiguration.addAll(buildCreateParameterStepsForQuery(allParams));
-
-            if (responseContents.size() > 0) {
-                if (responseContents.size() > 1) {
-                    System.out.println("creating route response decision");
-                    Optional<String> optDef = responses.keySet().stream().filter(sc -> sc.equals(DEFAULT)).findFirst();
-                    Optional<String> opt2XX = responses.keySet().stream().filter(sc -> sc.length() == 3 && sc.startsWith("2")).findFirst();
-                    Optional<String> optNumeric = responses.keySet().stream().filter(StringUtils::isNumeric).findFirst();
-                    String defaultStatusCode = opt2XX.orElse(optNumeric.orElse(optDef.orElse(responses.keySet().iterator().next())));
-
-                    if(optDef.isPresent()) {
-                        responseDecisionRules.add(new Rule(pathDirectory.getName() + "-" + DEFAULT, singletonList(new Condition(REQUEST_HEADERS_MOCK_RESPONSE_CODE, null, null, "true"))));
-                    }
+    /**
+     * *
+     * @param route
+     * @param context
+     * @param outputType
+     * @throws IOException
+     * @throws XMLStreamException
+     * @throws GenerationException
+     */
+    private static void processOperation(Route route, GenerationContext context, OutputType outputType) throws IOException, XMLStreamException, GenerationException {
+        Operation operation = route.getOperation();
+        String path = route.getPath();
+        PathItem pathItem = route.getPathItem();
+        Method method = route.getMethod();
+
+        LOGGER.debug("processing route {} {}", method, path);
+        long operationStart = System.nanoTime();
+
+        String directoryName = directoryName(route);
+        OutputSink sink = context.getSink();
+        List<Parameter> allParams = new ArrayList<>(pathItem.getParameters() != null ? pathItem.getParameters() : emptyList());
+        allParams.addAll(operation.getParameters() != null ? operation.getParameters() : emptyList());
+        GenerationManifest manifest = context.getManifest();
+        String fingerprint = null;
+
+        if (manifest != null) {
+            fingerprint = context.getFingerprinter().fingerprint(route);
+            GenerationManifest.Entry entry = manifest.getOperation(directoryName);
+
+            if (entry != null && fingerprint.equals(entry.getFingerprint()) && ((DirectoryOutputSink) sink).exists(directoryName)) {
+                LOGGER.debug("route unchanged since last generation");
+                context.getMetrics().operationSkipped();
+                completeRoute(route, sequenceRef(route, directoryName, outputType), allParams, entry.getRequestContent(), entry.getResponseContents());
+                return;
+            }
+
+            ((DirectoryOutputSink) sink).delete(directoryName);
+        }
 
-                    stepsForConfiguration.add(new Decision(null, responseDecisionSteps, responseDecisionRules, pathDirectory.getName() + "-" + defaultStatusCode));
-                } else {
-                    stepsForConfiguration.add(responseDecisionSteps.get(0));
+        if (!context.claimDirectory(directoryName)) {
+            throw new GenerationException("A configuration directory already exists: " + directoryName);
+        }
+
+        RequestBody requestBody = operation.getRequestBody();
+        String requestContent = null;
+
+        if (requestBody != null) {
+            requestContent = processRequest(requestBody, context, directoryName);
+        }
+
+        ApiResponses responses = operation.getResponses();
+
+        List<Step> responseDecisionSteps = new ArrayList<>();
+        List<Rule> responseDecisionRules = new ArrayList<>();
+        Map<String, String> responseContents = new LinkedHashMap<>();
+
+        if (responses != null) {
+            for (String code : responses.keySet()) {
+                responseContents.put(code, processResponse(code, responses.get(code), responseDecisionSteps, responseDecisionRules, context, directoryName));
+            }
+        } else {
+            throw new IllegalStateException("eh ???");
+        }
+
+        LOGGER.debug("creating path param extract steps");
+        List<Step> stepsForConfiguration = new ArrayList<>(buildCreateParameterStepsForPath(route.getPathTemplate(), allParams, context.getOptions().isSinglePassPath()));
+        stepsForConfiguration.addAll(buildCreateParameterStepsForQuery(allParams));
+
+        if (responseContents.size() > 0) {
+            if (responseContents.size() > 1) {
+                LOGGER.debug("creating route response decision");
+                Optional<String> optDef = responses.keySet().stream().filter(sc -> sc.equals(DEFAULT)).findFirst();
+                Optional<String> opt2XX = responses.keySet().stream().filter(sc -> sc.length() == 3 && sc.startsWith("2")).findFirst();
+                Optional<String> optNumeric = responses.keySet().stream().filter(StringUtils::isNumeric).findFirst();
+                String defaultStatusCode = opt2XX.orElse(optNumeric.orElse(optDef.orElse(responses.keySet().iterator().next())));
+
+                if(optDef.isPresent()) {
+                    responseDecisionRules.add(new Rule(directoryName + "-" + DEFAULT, singletonList(new Condition(REQUEST_HEADERS_MOCK_RESPONSE_CODE, null, null, "true"))));
                 }
+
+                stepsForConfiguration.add(new Decision(null, responseDecisionSteps, responseDecisionRules, directoryName + "-" + defaultStatusCode));
             } else {
-                System.out.println("creating route response step, no responses generated");
-                stepsForConfiguration.add(new CreateHttpResponse(null, "regurgitator : " + method + " " + path, null, parseLong(OK), PLAIN_TEXT));
+                stepsForConfiguration.add(responseDecisionSteps.get(0));
             }
+        } else {
+            LOGGER.debug("creating route response step, no responses generated");
+            stepsForConfiguration.add(new CreateHttpResponse(null, "regurgitator : " + method + " " + path, null, parseLong(OK), PLAIN_TEXT));
+        }
 
+        Step step;
+
+        if (context.getOptions().isSingleDocument()) {
+            LOGGER.debug("creating inline sequence step");
+            step = new Sequence(route.getStepId(), stepsForConfiguration);
+        } else {
             RegurgitatorConfiguration regurgitatorConfiguration = new RegurgitatorConfiguration(stepsForConfiguration);
-            File configFile = new File(pathDirectory, "regurgitator-configuration." + outputType);
-            System.out.println("### generating config file: " + pathDirectory.getName() + "/" + configFile.getName());
-            outputType.save(regurgitatorConfiguration, new FileOutputStream(configFile, false));
-
-            System.out.println("creating sequence ref step");
-            String stepId = "route-" + (steps.size() + 1);
-            steps.add(new SequenceRef(stepId, "classpath:/" + pathDirectory.getName() + "/regurgitator-configuration." + outputType));
-
-            System.out.println("creating path condition");
-            Condition pathCondition = buildPathCondition(path, pathItem.getParameters() != null ? pathItem.getParameters() : operation.getParameters());
-            System.out.println("creating method condition");
-            Condition methodCondition = new Condition(REQUEST_METADATA_METHOD, method.name(), null, null);
-            System.out.println("creating routing rule");
-            rules.add(new Rule(stepId, asList(methodCondition, pathCondition)));
-
-            List<QueryParam> queryParams = allParams.stream().filter(p -> "query".equals(p.getIn())).map(p -> new QueryParam(p.getName(), "PLACEHOLDER", p.getRequired() == null || !p.getRequired())).collect(Collectors.toList());
-            Request postmanRequest = new Request(operation.getSummary(), operation.getDescription(), path, method, responseContents.keySet().size() > 1 ? responseContents.keySet().stream().map(k -> new Header(RESPONSE_CODE_HEADER, k.replace(DEFAULT, PLACEHOLDER), true, "Return response code " + k)).toArray(Header[]::new) : null, new Body(Mode.raw, requestContent, false), queryParams);
-            postmanItems.add(new Item(method + " " + path, postmanRequest, responseContents.entrySet().stream().filter(e -> (StringUtils.isNumeric(e.getKey()) || Pattern.compile(NUM_XX_REGEX).matcher(e.getKey()).matches()) && e.getValue() != null).map(e -> new Response(e.getValue(), Integer.parseInt(e.getKey().replaceAll("X", "0")))).toArray(Response[]::new)));
-            postmanVariables.addAll(parameterStepsForPath.stream().map(s -> new Variable(((CreateParameter) s).getName(), PLACEHOLDER)).collect(Collectors.toList()));
+            String configFileName = "regurgitator-configuration." + outputType;
+            LOGGER.debug("### generating config file: {}/{}", directoryName, configFileName);
+            outputType.save(regurgitatorConfiguration, context.newOperationStream(directoryName, configFileName));
+            step = sequenceRef(route, directoryName, outputType);
         }
+
+        completeRoute(route, step, allParams, requestContent, responseContents);
+
+        if (manifest != null) {
+            manifest.putOperation(directoryName, new GenerationManifest.Entry(fingerprint, requestContent, responseContents));
+        }
+
+        context.getMetrics().operation(method + " " + path, operationStart);
+    }
+
+    private static Step sequenceRef(Route route, String directoryName, OutputType outputType) {
+        LOGGER.debug("creating sequence ref step");
+        return new SequenceRef(route.getStepId(), "classpath:/" + directoryName + "/regurgitator-configuration." + outputType);
+    }
+
+    /**
+     * sets the routing step, path condition and postman entries of a route, from either a fresh generation
+     * or the contents recorded when it was last generated
+     *
+     * @param route
+     * @param step
+     * @param allParams
+     * @param requestContent
+     * @param responseContents
+     */
+    private static void completeRoute(Route route, Step step, List<Parameter> allParams, String requestContent, Map<String, String> responseContents) {
+        Operation operation = route.getOperation();
+        String path = route.getPath();
+        PathItem pathItem = route.getPathItem();
+        Method method = route.getMethod();
+
+        route.setStep(step);
+
+        LOGGER.debug("creating path condition");
+        route.setPathCondition(buildPathCondition(route.getPathTemplate(), pathItem.getParameters() != null ? pathItem.getParameters() : operation.getParameters()));
+
+        List<QueryParam> queryParams = allParams.stream().filter(p -> "query".equals(p.getIn())).map(p -> new QueryParam(p.getName(), "PLACEHOLDER", p.getRequired() == null || !p.getRequired())).collect(Collectors.toList());
+        Request postmanRequest = new Request(operation.getSummary(), operation.getDescription(), route.getPathTemplate().getPostmanPath(), route.getPathTemplate().getPostmanSegments(), method, responseContents.keySet().size() > 1 ? responseContents.keySet().stream().map(k -> new Header(RESPONSE_CODE_HEADER, k.replace(DEFAULT, PLACEHOLDER), true, "Return response code " + k)).toArray(Header[]::new) : null, new Body(Mode.raw, requestContent, false), queryParams);
+        route.setPostmanItem(new Item(method + " " + path, postmanRequest, responseContents.entrySet().stream().filter(e -> (StringUtils.isNumeric(e.getKey()) || Pattern.compile(NUM_XX_REGEX).matcher(e.getKey()).matches()) && e.getValue() != null).map(e -> new Response(e.getValue(), Integer.parseInt(e.getKey().replaceAll("[Xx]", "0")))).toArray(Response[]::new)));
+        route.setPostmanVariables(route.getPathTemplate().getParameterNames().stream().map(name -> new Variable(name, PLACEHOLDER)).collect(Collectors.toList()));
     }
 
     /**
      * *
      * @param requestBody
-     * @param components
-     * @param pathDirectory
+     * @param context
+     * @param directoryName
      * @return
      * @throws IOException
-     * @throws ParserConfigurationException
-     * @throws TransformerException
+     * @throws XMLStreamException
+     * @throws GenerationException
      */
-    private static String processRequest(RequestBody requestBody, Components components, File pathDirectory) throws IOException, ParserConfigurationException, TransformerException {
-        System.out.println("### request");
+    private static String processRequest(RequestBody requestBody, GenerationContext context, String directoryName) throws IOException, XMLStreamException, GenerationException {
+        LOGGER.debug("### request");
 
         Content requestContent = requestBody.getContent();
 
         if (requestBody.get$ref() != null) {
-            String ref = requestBody.get$ref();
-            requestContent = components.getRequestBodies().get(ref.contains("/") ? ref.substring(ref.lastIndexOf("/") + 1) : ref).getContent();
+            requestContent = context.getGraph().requestBody(requestBody.get$ref()).getContent();
         }
 
         if (requestContent != null && requestContent.size() > 0) {
             String requestMediaTypeName = requestContent.keySet().iterator().next();
-            System.out.println("### media type " + requestMediaTypeName);
+            LOGGER.debug("### media type {}", requestMediaTypeName);
 
             if (APPLICATION_JSONS.contains(requestMediaTypeName) || APPLICATION_XMLS.contains(requestMediaTypeName)) {
                 MediaType requestMediaType = requestContent.get(requestMediaTypeName);
 
                 if (requestMediaType.getSchema() != null && (requestMediaType.getSchema().getProperties() != null || requestMediaType.getSchema().get$ref() != null || requestMediaType.getSchema().getAdditionalProperties() != null || ARRAY.equals(requestMediaType.getSchema().getType()))) {
-                    File requestFile = new File(pathDirectory, pathDirectory.getName() + "-request." + (APPLICATION_JSONS.contains(requestMediaTypeName) ? JSON : XML));
-                    System.out.println("### generating request file: " + requestFile.getName());
+                    String requestFileName = directoryName + "-request." + (APPLICATION_JSONS.contains(requestMediaTypeName) ? JSON : XML);
+                    boolean streamed = APPLICATION_JSONS.contains(requestMediaTypeName) && context.getOptions().isStreamJsonExamples();
+                    boolean shared = !streamed && context.getOptions().isSharedAssets();
+                    OutputStream requestStream = shared ? new ByteArrayOutputStream() : context.newOperationStream(directoryName, requestFileName);
+                    String content;
 
-                    if (APPLICATION_JSONS.contains(requestMediaTypeName)) {
-                        return JsonUtil.saveToJson(JsonUtil.buildJsonObject(requestMediaType.getSchema(), components, 1), new FileOutputStream(requestFile, false));
+                    if (!shared) {
+                        LOGGER.debug("### generating request file: {}", requestFileName);
+                    }
+
+                    context.getMetrics().bodyRendered();
+
+                    if (streamed) {
+                        JsonUtil.streamToJson(requestMediaType.getSchema(), context.getGraph(), requestStream);
+                        return null;
+                    } else if (APPLICATION_JSONS.contains(requestMediaTypeName)) {
+                        content = JsonUtil.saveToJson(JsonUtil.buildJsonObject(requestMediaType.getSchema(), context.getGraph(), context.getExampleCache(), new HashSet<>()), requestStream);
                     } else {
-                        Document document = XmlUtil.newDocument();
-                        return XmlUtil.saveToXml(XmlUtil.buildXmlObject(null, requestMediaType.getSchema(), document, components, 1), document, new FileOutputStream(requestFile, false));
+                        content = XmlUtil.saveToXml(writer -> XmlUtil.writeXmlObject(null, requestMediaType.getSchema(), context.getGraph(), context.getExampleCache(), new HashSet<>(), writer), requestStream);
+                    }
+
+                    if (shared) {
+                        saveContent(content, context, directoryName, requestFileName);
                     }
+
+                    return content;
                 }
             } else {
-                System.out.println("### unsupported request media type: " + requestMediaTypeName);
+                LOGGER.debug("### unsupported request media type: {}", requestMediaTypeName);
             }
         } else {
-            System.out.println("### request has no content !?");
+            LOGGER.debug("### request has no content !?");
         }
 
         return null;
@@ -338,194 +677,225 @@ public class ConfigurationGenerator {
      * @param apiResponse
      * @param responseDecisionSteps
      * @param responseDecisionRules
-     * @param components
-     * @param pathDirectory
+     * @param context
+     * @param directoryName
      * @return
      * @throws IOException
-     * @throws ParserConfigurationException
-     * @throws TransformerException
+     * @throws XMLStreamException
+     * @throws GenerationException
      */
-    private static String processResponse(String code, ApiResponse apiResponse, List<Step> responseDecisionSteps, List<Rule> responseDecisionRules, Components components, File pathDirectory) throws IOException, ParserConfigurationException, TransformerException {
-        System.out.println("### " + code + " response");
+    private static String processResponse(String code, ApiResponse apiResponse, List<Step> responseDecisionSteps, List<Rule> responseDecisionRules, GenerationContext context, String directoryName) throws IOException, XMLStreamException, GenerationException {
+        LOGGER.debug("### {} response", code);
 
         Matcher numericCodeRegex = Pattern.compile(NUM_XX_REGEX).matcher(code);
         Content responseContent = apiResponse.getContent();
 
         if (apiResponse.get$ref() != null) {
-            String ref = apiResponse.get$ref();
-            responseContent = components.getResponses().get(ref.contains("/") ? ref.substring(ref.lastIndexOf("/") + 1) : ref).getContent();
+            responseContent = context.getGraph().response(apiResponse.get$ref()).getContent();
         }
 
         if (responseContent != null && responseContent.size() > 0) {
             String responseMediaTypeName = responseContent.keySet().iterator().next();
-            System.out.println("### media type " + responseMediaTypeName);
+            LOGGER.debug("### media type {}", responseMediaTypeName);
 
             if (APPLICATION_JSONS.contains(responseMediaTypeName) || APPLICATION_XMLS.contains(responseMediaTypeName)) {
                 MediaType responseMediaType = responseContent.get(responseMediaTypeName);
-                File responseFile = new File(pathDirectory, pathDirectory.getName() + "-" + code + "." + (APPLICATION_JSONS.contains(responseMediaTypeName) ? JSON : XML));
-                String fileReference = "classpath:/" + pathDirectory.getName() + "/" + responseFile.getName();
+                String responseFileName = directoryName + "-" + code + "." + (APPLICATION_JSONS.contains(responseMediaTypeName) ? JSON : XML);
+                String fileReference = "classpath:/" + directoryName + "/" + responseFileName;
 
                 if (responseMediaType.getSchema() != null && (responseMediaType.getSchema().getProperties() != null || responseMediaType.getSchema().get$ref() != null || responseMediaType.getSchema().getAdditionalProperties() != null || responseMediaType.getSchema().getType() != null)) {
-                    System.out.println("### generating response file: " + responseFile.getName());
+                    boolean streamed = APPLICATION_JSONS.contains(responseMediaTypeName) && context.getOptions().isStreamJsonExamples();
+                    boolean buffered = !streamed && (context.getOptions().getInlineThreshold() > 0 || context.getOptions().isSharedAssets());
+                    OutputStream responseStream = buffered ? new ByteArrayOutputStream() : context.newOperationStream(directoryName, responseFileName);
                     String content;
 
-                    if (APPLICATION_JSONS.contains(responseMediaTypeName)) {
-                        content = JsonUtil.saveToJson(JsonUtil.buildJsonObject(responseMediaType.getSchema(), components, 1), new FileOutputStream(responseFile, false));
+                    if (!buffered) {
+                        LOGGER.debug("### generating response file: {}", responseFileName);
+                    }
+
+                    context.getMetrics().bodyRendered();
+
+                    if (streamed) {
+                        JsonUtil.streamToJson(responseMediaType.getSchema(), context.getGraph(), responseStream);
+                        content = null;
+                    } else if (APPLICATION_JSONS.contains(responseMediaTypeName)) {
+                        content = JsonUtil.saveToJson(JsonUtil.buildJsonObject(responseMediaType.getSchema(), context.getGraph(), context.getExampleCache(), new HashSet<>()), responseStream);
                     } else {
-                        Document document = XmlUtil.newDocument();
-                        content = XmlUtil.saveToXml(XmlUtil.buildXmlObject(null, responseMediaType.getSchema(), document, components, 1), document, new FileOutputStream(responseFile, false));
+                        content = XmlUtil.saveToXml(writer -> XmlUtil.writeXmlObject(null, responseMediaType.getSchema(), context.getGraph(), context.getExampleCache(), new HashSet<>(), writer), responseStream);
                     }
 
-                    generateLogicSteps(code, responseDecisionSteps, responseDecisionRules, pathDirectory, numericCodeRegex, responseMediaTypeName, null, fileReference);
+                    if (buffered) {
+                        saveOrInlineContent(code, content, responseDecisionSteps, responseDecisionRules, context, directoryName, numericCodeRegex, responseMediaTypeName, responseFileName);
+                    } else {
+                        generateLogicSteps(code, responseDecisionSteps, responseDecisionRules, directoryName, numericCodeRegex, responseMediaTypeName, null, fileReference);
+                    }
 
                     return content;
                 } else if (responseMediaType.getExample() != null) {
-                    System.out.println("### generating response file: " + responseFile.getName());
                     String content = String.valueOf(responseMediaType.getExample());
-                    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
-                    new FileOutputStream(responseFile, false).write(bytes, 0, bytes.length);
-
-                    generateLogicSteps(code, responseDecisionSteps, responseDecisionRules, pathDirectory, numericCodeRegex, responseMediaTypeName, null, fileReference);
-
+                    saveOrInlineContent(code, content, responseDecisionSteps, responseDecisionRules, context, directoryName, numericCodeRegex, responseMediaTypeName, responseFileName);
                     return content;
                 }
             } else {
-                System.out.println("### unsupported media type ");
-                System.out.println("creating http response without file");
+                LOGGER.debug("### unsupported media type ");
+                LOGGER.debug("creating http response without file");
 
-                generateLogicSteps(code, responseDecisionSteps, responseDecisionRules, pathDirectory, numericCodeRegex, responseMediaTypeName, NO_CONTENT, null);
+                generateLogicSteps(code, responseDecisionSteps, responseDecisionRules, directoryName, numericCodeRegex, responseMediaTypeName, NO_CONTENT, null);
             }
         } else {
-            System.out.println("### no media type ");
-            System.out.println("creating http response without file");
+            LOGGER.debug("### no media type ");
+            LOGGER.debug("creating http response without file");
 
-            generateLogicSteps(code, responseDecisionSteps, responseDecisionRules, pathDirectory, numericCodeRegex, PLAIN_TEXT, NO_CONTENT, null);
+            generateLogicSteps(code, responseDecisionSteps, responseDecisionRules, directoryName, numericCodeRegex, PLAIN_TEXT, NO_CONTENT, null);
         }
 
         return null;
     }
 
+    /**
+     * responds with bodies smaller than the inline threshold from the value of the response step itself,
+     * saving larger ones to a response file (or shared asset)
+     *
+     * @param code
+     * @param content
+     * @param responseDecisionSteps
+     * @param responseDecisionRules
+     * @param context
+     * @param directoryName
+     * @param numericCodeRegex
+     * @param responseMediaTypeName
+     * @param responseFileName
+     * @throws IOException
+     * @throws GenerationException
+     */
+    private static void saveOrInlineContent(String code, String content, List<Step> responseDecisionSteps, List<Rule> responseDecisionRules, GenerationContext context, String directoryName, Matcher numericCodeRegex, String responseMediaTypeName, String responseFileName) throws IOException, GenerationException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length < context.getOptions().getInlineThreshold()) {
+            LOGGER.debug("inlining response body of {} byte(s)", bytes.length);
+            generateLogicSteps(code, responseDecisionSteps, responseDecisionRules, directoryName, numericCodeRegex, responseMediaTypeName, content, null);
+            return;
+        }
+
+        String fileReference = saveContent(content, context, directoryName, responseFileName);
+        generateLogicSteps(code, responseDecisionSteps, responseDecisionRules, directoryName, numericCodeRegex, responseMediaTypeName, null, fileReference);
+    }
+
+    /**
+     * saves an example body into its operation's directory or, when sharing assets, once into the shared
+     * assets directory under the hash of its contents, however many operations it is used by
+     *
+     * @param content
+     * @param context
+     * @param directoryName
+     * @param fileName
+     * @return the classpath reference of the saved file
+     * @throws IOException
+     * @throws GenerationException
+     */
+    private static String saveContent(String content, GenerationContext context, String directoryName, String fileName) throws IOException, GenerationException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        String path = directoryName + "/" + fileName;
+        OutputStream fileStream;
+
+        if (context.getOptions().isSharedAssets()) {
+            path = ASSETS_DIRECTORY + "/" + OperationFingerprinter.hex(OperationFingerprinter.newDigest().digest(bytes)) + fileName.substring(fileName.lastIndexOf("."));
+
+            if (!context.claimAsset(path)) {
+                LOGGER.debug("### reusing shared asset: {} for {}", path, fileName);
+                return "classpath:/" + path;
+            }
+
+            fileStream = context.newOutputStream(path);
+        } else {
+            fileStream = context.newOperationStream(directoryName, fileName);
+        }
+
+        LOGGER.debug("### generating file: {}", path);
+
+        try (OutputStream outputStream = fileStream) {
+            outputStream.write(bytes, 0, bytes.length);
+        }
+
+        return "classpath:/" + path;
+    }
+
     /**
      * @param code
      * @param responseDecisionSteps
      * @param responseDecisionRules
-     * @param pathDirectory
+     * @param directoryName
      * @param numericCodeRegex
      * @param responseMediaTypeName
      * @param value
      * @param file
      */
-    private static void generateLogicSteps(String code, List<Step> responseDecisionSteps, List<Rule> responseDecisionRules, File pathDirectory, Matcher numericCodeRegex, String responseMediaTypeName, String value, String file) {
+    private static void generateLogicSteps(String code, List<Step> responseDecisionSteps, List<Rule> responseDecisionRules, String directoryName, Matcher numericCodeRegex, String responseMediaTypeName, String value, String file) {
         if (StringUtils.isNumeric(code)) {
-            System.out.println("creating http response");
-            responseDecisionSteps.add(new CreateHttpResponse(pathDirectory.getName() + "-" + code, value, file, parseLong(code), responseMediaTypeName));
-            System.out.println("creating decision rule");
-            responseDecisionRules.add(new Rule(pathDirectory.getName() + "-" + code, singletonList(new Condition(REQUEST_HEADERS_MOCK_RESPONSE_CODE, code, null, null))));
+            LOGGER.debug("creating http response");
+            responseDecisionSteps.add(new CreateHttpResponse(directoryName + "-" + code, value, file, parseLong(code), responseMediaTypeName));
+            LOGGER.debug("creating decision rule");
+            responseDecisionRules.add(new Rule(directoryName + "-" + code, singletonList(new Condition(REQUEST_HEADERS_MOCK_RESPONSE_CODE, code, null, null))));
         } else if(numericCodeRegex.matches()) {
             String firstDigit = numericCodeRegex.group(1);
-            responseDecisionSteps.add(new Sequence(pathDirectory.getName() + "-" + code, Arrays.asList(
+            responseDecisionSteps.add(new Sequence(directoryName + "-" + code, Arrays.asList(
                     new CreateParameter(RESPONSE_METADATA_CONTENT_TYPE, null, responseMediaTypeName, null, false),
                     new CreateParameter(RESPONSE_METADATA_STATUS_CODE, REQUEST_HEADERS_MOCK_RESPONSE_CODE, firstDigit + ZERO_ZERO, null, false),
-                    new CreateResponse(pathDirectory.getName() + "-" + code + "-response", value, file)
+                    new CreateResponse(directoryName + "-" + code + "-response", value, file)
             )));
-            responseDecisionRules.add(new Rule(pathDirectory.getName() + "-" + code, singletonList(new Condition(REQUEST_HEADERS_MOCK_RESPONSE_CODE, null, "^[" + firstDigit + "][0-9][0-9]$", null))));
+            responseDecisionRules.add(new Rule(directoryName + "-" + code, singletonList(new Condition(REQUEST_HEADERS_MOCK_RESPONSE_CODE, null, "^[" + firstDigit + "][0-9][0-9]$", null))));
         } else {
-            responseDecisionSteps.add(new Sequence(pathDirectory.getName() + "-" + code, Arrays.asList(
+            responseDecisionSteps.add(new Sequence(directoryName + "-" + code, Arrays.asList(
                     new CreateParameter(RESPONSE_METADATA_CONTENT_TYPE, null, responseMediaTypeName, null, false),
                     new CreateParameter(RESPONSE_METADATA_STATUS_CODE, REQUEST_HEADERS_MOCK_RESPONSE_CODE, OK, null, false),
-                    new CreateResponse(pathDirectory.getName() + "-" + code + "-response", value, file)
+                    new CreateResponse(directoryName + "-" + code + "-response", value, file)
             )));
         }
     }
 
     /**
      * *
-     * @param path
+     * @param pathTemplate
      * @param parameters
      * @return
      */
-    private static Condition buildPathCondition(String path, List<Parameter> parameters) {
-        if (path.contains("{") && path.contains("}")) {
-            System.out.println("- parsing inline parameters from path");
-            List<String> separators = new ArrayList<>();
-            List<String> types = new ArrayList<>();
-            List<Boolean> requireds = new ArrayList<>();
-
-            while (path.contains("{")) {
-                separators.add(path.substring(0, path.indexOf("{")));
-                processPathParameter(path.substring(path.indexOf("{") + 1, path.indexOf("}")), parameters, types, requireds);
-                path = path.substring(path.indexOf("}") + 1);
-            }
-
-            separators.add(path);
-
-            System.out.println("- creating regex for path");
-            StringBuilder builder = new StringBuilder("^");
-
-            while (!separators.isEmpty()) {
-                builder.append(separators.remove(0).replace("/", "\\/"));
-
-                if (!types.isEmpty()) {
-                    builder.append("([").append(INTEGER.equals(types.remove(0)) ? NUMERIC : ALPHA_NUMERIC).append("]").append(requireds.remove(0) ? "+" : "*").append(")");
-                }
-            }
-
-            String regex = builder.append("$").toString();
-            return new Condition(REQUEST_METADATA_REQUEST_URI, null, regex, null);
+    static Condition buildPathCondition(PathTemplate pathTemplate, List<Parameter> parameters) {
+        if (pathTemplate.isTemplated()) {
+            LOGGER.debug("- creating regex for path");
+            return new Condition(REQUEST_METADATA_REQUEST_URI, null, pathTemplate.regex(parameters), null);
         }
 
-        return new Condition(REQUEST_METADATA_REQUEST_URI, path, null, null);
+        return new Condition(REQUEST_METADATA_REQUEST_URI, pathTemplate.getTemplate(), null, null);
     }
 
     /**
-     * *
-     * @param path
+     * each path param is extracted from the request uri in turn, unless single pass is asked for and there are
+     * several, which are then split from the uri in one pass into a list parameter that each path param takes
+     * its value from by index
+     *
+     * @param pathTemplate
      * @param parameters
+     * @param singlePass
      * @return
      */
-    private static List<Step> buildCreateParameterStepsForPath(String path, List<Parameter> parameters) {
-        if (path.contains("{") && path.contains("}")) {
-            System.out.println("- parsing inline parameters from path");
-            List<String> ids = new ArrayList<>();
-            List<String> separators = new ArrayList<>();
-            List<String> types = new ArrayList<>();
-            List<Boolean> requireds = new ArrayList<>();
-
-            while (path.contains("{")) {
-                separators.add(path.substring(0, path.indexOf("{")));
-                String id = path.substring(path.indexOf("{") + 1, path.indexOf("}"));
-                processPathParameter(id, parameters, types, requireds);
-                ids.add(id);
-                path = path.substring(path.indexOf("}") + 1);
-            }
+    static List<Step> buildCreateParameterStepsForPath(PathTemplate pathTemplate, List<Parameter> parameters, boolean singlePass) {
+        LOGGER.debug("- creating create-parameter steps for path params");
+        List<String> names = pathTemplate.getParameterNames();
+        List<Step> createParameters = new ArrayList<>();
 
-            separators.add(path);
+        if (singlePass && names.size() > 1) {
+            createParameters.add(new CreateParameter(PATH_PARAMETER_VALUES, LIST_OF_STRING, REQUEST_METADATA_REQUEST_URI, null, new SubstituteProcessor(pathTemplate.getCaptureRegex(), pathTemplate.getCaptureReplacement()), false));
 
-            System.out.println("- creating extract format for path");
-            StringBuilder builder = new StringBuilder();
-            int idIndex = 0;
-
-            while (!separators.isEmpty()) {
-                builder.append(separators.remove(0));
-
-                if (!types.isEmpty()) {
-                    types.remove(0);
-                    builder.append("{").append(idIndex++).append("}");
-                }
+            for (int i = 0; i < names.size(); i++) {
+                createParameters.add(new CreateParameter(names.get(i), PARAMETERS_PATH_PARAMETER_VALUES, null, new AtIndexProcessor(i), !PathTemplate.isRequired(names.get(i), parameters)));
             }
-
-            String extractFormat = builder.toString();
-            System.out.println("- creating create-parameter steps for path params");
-            List<Step> createParameters = new ArrayList<>();
-
-            for (int i = 0; i < ids.size(); i++) {
-                createParameters.add(new CreateParameter(ids.get(i), REQUEST_METADATA_REQUEST_URI, null, new ExtractProcessor(extractFormat, i), !requireds.get(i)));
+        } else {
+            for (int i = 0; i < names.size(); i++) {
+                createParameters.add(new CreateParameter(names.get(i), REQUEST_METADATA_REQUEST_URI, null, new ExtractProcessor(pathTemplate.getExtractFormat(), i), !PathTemplate.isRequired(names.get(i), parameters)));
             }
-
-            return createParameters;
         }
 
-        return new ArrayList<>();
+        return createParameters;
     }
 
     /**
@@ -536,22 +906,4 @@ public class ConfigurationGenerator {
     private static List<Step> buildCreateParameterStepsForQuery(List<Parameter> parameters) {
         return parameters.stream().filter(p -> "query".equals(p.getIn())).map(p -> new CreateParameter(p.getName(), REQUEST_METADATA_QUERY_STRING, null, new QueryParamProcessor(p.getName()), p.getRequired() == null || !p.getRequired())).collect(Collectors.toList());
     }
-
-    /**
-     * *
-     * @param id
-     * @param parameters
-     * @param types
-     * @param requireds
-     */
-    private static void processPathParameter(String id, List<Parameter> parameters, List<String> types, List<Boolean> requireds) {
-        if (parameters != null) {
-            Optional<Parameter> firstParam = parameters.stream().filter(p -> id.equals(p.getName()) && "path".equals(p.getIn())).findFirst();
-            types.add(firstParam.isPresent() ? firstParam.get().getSchema().getType() : STRING);
-            requireds.add(firstParam.isPresent() ? firstParam.get().getRequired() : true);
-        } else {
-            types.add(STRING);
-            requireds.add(true);
-        }
-    }
 }
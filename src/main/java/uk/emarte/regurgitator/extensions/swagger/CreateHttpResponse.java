@@ -7,11 +7,12 @@ package uk.emarte.regurgitator.extensions.swagger;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.RGW;
-import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.addAttributeIfPresent;
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.writeAttributeIfPresent;
 
 @JsonInclude(Include.NON_NULL)
 class CreateHttpResponse implements Step {
@@ -31,13 +32,13 @@ class CreateHttpResponse implements Step {
     }
 
     @Override
-    public Element toXml(Document document, Element parentElement) {
-        Element element = document.createElement(RGW + kind);
-        addAttributeIfPresent(element, "id", id);
-        addAttributeIfPresent(element, "value", value);
-        addAttributeIfPresent(element, "file", file);
-        addAttributeIfPresent(element, "status-code", "" + statusCode);
-        addAttributeIfPresent(element, "content-type", contentType);
-        return element;
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RGW + kind);
+        writeAttributeIfPresent(writer, "id", id);
+        writeAttributeIfPresent(writer, "value", value);
+        writeAttributeIfPresent(writer, "file", file);
+        writeAttributeIfPresent(writer, "status-code", "" + statusCode);
+        writeAttributeIfPresent(writer, "content-type", contentType);
+        writer.writeEndElement();
     }
 }
@@ -7,23 +7,30 @@ package uk.emarte.regurgitator.extensions.swagger;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.RG;
-import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.addAttributeIfPresent;
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.writeAttributeIfPresent;
 
 @JsonInclude(Include.NON_NULL)
 class CreateParameter implements Step {
     @JsonProperty private final String kind = "create-parameter";
     @JsonProperty private final String name;
+    @JsonProperty private final String type;
     @JsonProperty private final String source;
     @JsonProperty private final String value;
     @JsonProperty private final ValueProcessor processor;
     @JsonProperty private final Boolean optional;
 
     CreateParameter(String name, String source, String value, ValueProcessor processor, Boolean optional) {
+        this(name, null, source, value, processor, optional);
+    }
+
+    CreateParameter(String name, String type, String source, String value, ValueProcessor processor, Boolean optional) {
         this.name = name;
+        this.type = type;
         this.source = source;
         this.value = value;
         this.processor = processor;
@@ -31,18 +38,19 @@ class CreateParameter implements Step {
     }
 
     @Override
-    public Element toXml(Document document, Element parentElement) {
-        Element element = document.createElement(RG + kind);
-        addAttributeIfPresent(element, "name", name);
-        addAttributeIfPresent(element, "source", source);
-        addAttributeIfPresent(element, "value", value);
-        addAttributeIfPresent(element, "optional", nullableToString(optional));
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RG + kind);
+        writeAttributeIfPresent(writer, "name", name);
+        writeAttributeIfPresent(writer, "type", type);
+        writeAttributeIfPresent(writer, "source", source);
+        writeAttributeIfPresent(writer, "value", value);
+        writeAttributeIfPresent(writer, "optional", nullableToString(optional));
 
         if(processor != null) {
-            element.appendChild(processor.toXml(document, element));
+            processor.writeXml(writer);
         }
 
-        return element;
+        writer.writeEndElement();
     }
 
     private String nullableToString(Boolean bool) {
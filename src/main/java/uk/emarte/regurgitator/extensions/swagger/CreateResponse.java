@@ -7,11 +7,12 @@ package uk.emarte.regurgitator.extensions.swagger;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.RG;
-import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.addAttributeIfPresent;
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.writeAttributeIfPresent;
 
 @JsonInclude(Include.NON_NULL)
 class CreateResponse implements Step {
@@ -27,11 +28,11 @@ class CreateResponse implements Step {
     }
 
     @Override
-    public Element toXml(Document document, Element parentElement) {
-        Element element = document.createElement(RG + kind);
-        addAttributeIfPresent(element, "id", id);
-        addAttributeIfPresent(element, "value", value);
-        addAttributeIfPresent(element, "file", file);
-        return element;
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RG + kind);
+        writeAttributeIfPresent(writer, "id", id);
+        writeAttributeIfPresent(writer, "value", value);
+        writeAttributeIfPresent(writer, "file", file);
+        writer.writeEndElement();
     }
 }
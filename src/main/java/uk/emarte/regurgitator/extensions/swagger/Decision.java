@@ -7,13 +7,13 @@ package uk.emarte.regurgitator.extensions.swagger;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import java.util.List;
 
 import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.RG;
-import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.addAttributeIfPresent;
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.writeAttributeIfPresent;
 
 @JsonInclude(Include.NON_NULL)
 class Decision implements Step {
@@ -31,25 +31,26 @@ class Decision implements Step {
     }
 
     @Override
-    public Element toXml(Document document, Element parentElement) {
-        Element element = document.createElement(RG + kind);
-        addAttributeIfPresent(element, "id", id);
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RG + kind);
+        writeAttributeIfPresent(writer, "id", id);
 
-        Element stepsElement = document.createElement(RG + "steps");
-        element.appendChild(stepsElement);
+        writer.writeStartElement(RG + "steps");
 
         for(Step step: this.steps) {
-            stepsElement.appendChild(step.toXml(document, stepsElement));
+            step.writeXml(writer);
         }
 
-        Element rulesElement = document.createElement(RG + "rules");
-        element.appendChild(rulesElement);
-        addAttributeIfPresent(rulesElement, "default-step", defaultStep);
+        writer.writeEndElement();
+
+        writer.writeStartElement(RG + "rules");
+        writeAttributeIfPresent(writer, "default-step", defaultStep);
 
         for(Rule rule: rules) {
-            rulesElement.appendChild(rule.toXml(document, rulesElement));
+            rule.writeXml(writer);
         }
 
-        return element;
+        writer.writeEndElement();
+        writer.writeEndElement();
     }
 }
\ No newline at end of file
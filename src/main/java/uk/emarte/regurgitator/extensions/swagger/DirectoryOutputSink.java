@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes generated files into a directory on the file system
+ */
+public class DirectoryOutputSink implements OutputSink {
+    private final File directory;
+
+    /**
+     * @param directory an existing directory to write into
+     */
+    public DirectoryOutputSink(File directory) {
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public boolean createDirectory(String path) throws IOException {
+        File pathDirectory = new File(directory, path);
+
+        if (pathDirectory.isDirectory()) {
+            return false;
+        }
+
+        if (!pathDirectory.mkdirs()) {
+            throw new IOException("Unable to create directory: " + pathDirectory);
+        }
+
+        return true;
+    }
+
+    @Override
+    public OutputStream newOutputStream(String path) throws IOException {
+        File file = new File(directory, path);
+        File parent = file.getParentFile();
+
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create directory: " + parent);
+        }
+
+        return new BufferedOutputStream(new FileOutputStream(file, false));
+    }
+
+    /**
+     * @param path the path of a file or directory
+     * @return whether anything exists at the path
+     */
+    boolean exists(String path) {
+        return new File(directory, path).exists();
+    }
+
+    /**
+     * @param path the path of a file or directory, deleted along with everything beneath it
+     * @throws IOException if anything cannot be deleted
+     */
+    void delete(String path) throws IOException {
+        File file = new File(directory, path);
+
+        if (file.exists()) {
+            try (Stream<Path> files = Files.walk(file.toPath())) {
+                List<Path> paths = files.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+
+                for (Path each : paths) {
+                    Files.delete(each);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
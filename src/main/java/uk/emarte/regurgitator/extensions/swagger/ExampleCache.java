@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per generation run cache of rendered examples for referenced component schemas, so that each component
+ * is rendered once per output format however many times it is referenced. Recursive components are not
+ * cached, as where their rendering stops depends on where in a tree they are rendered. Components holding
+ * a generated value (a date-time or uuid) are not cached either, so that each use still gets a value of
+ * its own.
+ */
+class ExampleCache {
+    private final ComponentGraph graph;
+    private final ConcurrentMap<String, Object> jsonExamples = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, XmlAware> xmlExamples = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+
+    ExampleCache(ComponentGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * json examples are shared between every tree they are used in, so are never modified once built
+     *
+     * @param componentName
+     * @param renderer
+     * @return
+     */
+    Object json(String componentName, Supplier<Object> renderer) {
+        if (!isCacheable(componentName)) {
+            renders.increment();
+            return renderer.get();
+        }
+
+        Object example = jsonExamples.get(componentName);
+
+        if (example == null) {
+            renders.increment();
+            example = renderer.get();
+
+            if (example != null) {
+                jsonExamples.putIfAbsent(componentName, example);
+            }
+        } else {
+            hits.increment();
+        }
+
+        return example;
+    }
+
+    /**
+     * xml examples are recorded as the writer calls that rendered them, as they are written, and replayed
+     * into the requesting writer on use, so they are laid out for the depth they are replayed at
+     *
+     * @param componentName
+     * @param elementName
+     * @param writer
+     * @param renderer
+     * @throws XMLStreamException
+     */
+    void xml(String componentName, String elementName, XMLStreamWriter writer, XmlAware renderer) throws XMLStreamException {
+        if (!isCacheable(componentName)) {
+            renders.increment();
+            renderer.writeXml(writer);
+            return;
+        }
+
+        String key = componentName + (elementName != null ? "|" + elementName : "");
+        XmlAware example = xmlExamples.get(key);
+
+        if (example == null) {
+            renders.increment();
+            RecordingXmlStreamWriter recorder = new RecordingXmlStreamWriter(writer);
+            renderer.writeXml(recorder);
+            xmlExamples.putIfAbsent(key, recorder.getRecording());
+        } else {
+            hits.increment();
+            example.writeXml(writer);
+        }
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getRenders() {
+        return renders.sum();
+    }
+
+    private boolean isCacheable(String componentName) {
+        return !graph.isRecursive(componentName) && !graph.hasGeneratedValues(componentName);
+    }
+}
@@ -5,11 +5,12 @@
 package uk.emarte.regurgitator.extensions.swagger;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.RG;
-import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.addAttributeIfPresent;
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.writeAttributeIfPresent;
 
 class ExtractProcessor implements ValueProcessor {
     @JsonProperty private final String kind = "extract-processor";
@@ -22,10 +23,10 @@ class ExtractProcessor implements ValueProcessor {
     }
 
     @Override
-    public Element toXml(Document document, Element parentElement) {
-        Element element = document.createElement(RG + kind);
-        addAttributeIfPresent(element, "format", format);
-        addAttributeIfPresent(element, "index", "" + index);
-        return element;
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RG + kind);
+        writeAttributeIfPresent(writer, "format", format);
+        writeAttributeIfPresent(writer, "index", "" + index);
+        writer.writeEndElement();
     }
 }
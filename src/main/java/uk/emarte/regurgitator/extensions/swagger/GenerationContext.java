@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State shared by every operation generated in a single generation run
+ */
+class GenerationContext {
+    private final ComponentGraph graph;
+    private final ExampleCache exampleCache;
+    private final GenerationOptions options;
+    private final OutputSink sink;
+    private final OperationFingerprinter fingerprinter;
+    private final GenerationManifest manifest;
+    private final GenerationMetrics metrics;
+    private final Set<String> claimedDirectories = ConcurrentHashMap.newKeySet();
+    private final Set<String> createdDirectories = ConcurrentHashMap.newKeySet();
+    private final Set<String> claimedAssets = ConcurrentHashMap.newKeySet();
+
+    GenerationContext(ComponentGraph graph, ExampleCache exampleCache, GenerationOptions options, OutputSink sink, OperationFingerprinter fingerprinter, GenerationManifest manifest, GenerationMetrics metrics) {
+        this.graph = graph;
+        this.exampleCache = exampleCache;
+        this.options = options;
+        this.sink = sink;
+        this.fingerprinter = fingerprinter;
+        this.manifest = manifest;
+        this.metrics = metrics;
+    }
+
+    ComponentGraph getGraph() {
+        return graph;
+    }
+
+    ExampleCache getExampleCache() {
+        return exampleCache;
+    }
+
+    GenerationOptions getOptions() {
+        return options;
+    }
+
+    OutputSink getSink() {
+        return sink;
+    }
+
+    /**
+     * @param path
+     * @return a stream to a new file in the sink, metered
+     * @throws IOException
+     */
+    OutputStream newOutputStream(String path) throws IOException {
+        return metrics.meter(sink.newOutputStream(path));
+    }
+
+    GenerationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param directoryName the directory of an operation
+     * @return true if no other operation of this run has claimed the directory
+     */
+    boolean claimDirectory(String directoryName) {
+        return claimedDirectories.add(directoryName);
+    }
+
+    /**
+     * @param directoryName the directory of an operation
+     * @param fileName the name of a file within the directory
+     * @return a stream to the new file, the directory being created when the operation writes its first file
+     * @throws IOException
+     * @throws GenerationException if the directory already exists
+     */
+    OutputStream newOperationStream(String directoryName, String fileName) throws IOException, GenerationException {
+        if (createdDirectories.add(directoryName) && !sink.createDirectory(directoryName)) {
+            throw new GenerationException("A configuration directory already exists: " + directoryName);
+        }
+
+        return newOutputStream(directoryName + "/" + fileName);
+    }
+
+    /**
+     * @return the fingerprinter for operation inputs, or null if generation is not incremental
+     */
+    OperationFingerprinter getFingerprinter() {
+        return fingerprinter;
+    }
+
+    /**
+     * @return the manifest of the output directory, or null if generation is not incremental
+     */
+    GenerationManifest getManifest() {
+        return manifest;
+    }
+
+    /**
+     * @param path the path of a shared asset
+     * @return true if the caller is the first to claim the asset, and so should write it
+     */
+    boolean claimAsset(String path) {
+        return claimedAssets.add(path);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.TreeMap;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+/**
+ * Record of a previous generation into an output directory, kept so an incremental generation can tell which
+ * operation directories and top level files are still current. Request and response contents are kept so the
+ * postman collection can be rebuilt without regenerating unchanged operations.
+ */
+@JsonInclude(NON_NULL)
+class GenerationManifest {
+    static final String MANIFEST_FILE = ".regurgitator-manifest.json";
+    private static final ObjectMapper MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @JsonProperty private final Map<String, Entry> operations = new TreeMap<>();
+    @JsonProperty private final Map<String, String> files = new TreeMap<>();
+
+    static GenerationManifest load(File outputDirectory) throws IOException {
+        File manifestFile = new File(outputDirectory, MANIFEST_FILE);
+        return manifestFile.isFile() ? MAPPER.readValue(manifestFile, GenerationManifest.class) : new GenerationManifest();
+    }
+
+    void save(File outputDirectory) throws IOException {
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(new File(outputDirectory, MANIFEST_FILE), this);
+    }
+
+    synchronized Set<String> getOperationNames() {
+        return new TreeSet<>(operations.keySet());
+    }
+
+    synchronized Entry getOperation(String directoryName) {
+        return operations.get(directoryName);
+    }
+
+    synchronized void putOperation(String directoryName, Entry entry) {
+        operations.put(directoryName, entry);
+    }
+
+    synchronized void removeOperation(String directoryName) {
+        operations.remove(directoryName);
+    }
+
+    String getFileFingerprint(String fileName) {
+        return files.get(fileName);
+    }
+
+    void putFileFingerprint(String fileName, String fingerprint) {
+        files.put(fileName, fingerprint);
+    }
+
+    @JsonInclude(NON_NULL)
+    static class Entry {
+        @JsonProperty private String fingerprint;
+        @JsonProperty private String requestContent;
+        @JsonProperty private Map<String, String> responseContents = new LinkedHashMap<>();
+
+        private Entry() {
+        }
+
+        Entry(String fingerprint, String requestContent, Map<String, String> responseContents) {
+            this.fingerprint = fingerprint;
+            this.requestContent = requestContent;
+            this.responseContents = responseContents;
+        }
+
+        String getFingerprint() {
+            return fingerprint;
+        }
+
+        String getRequestContent() {
+            return requestContent;
+        }
+
+        Map<String, String> getResponseContents() {
+            return responseContents;
+        }
+    }
+}
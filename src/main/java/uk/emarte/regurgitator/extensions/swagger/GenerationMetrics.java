@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings and counters collected over one generation run, reported as json so that generation cost can be
+ * tracked across spec versions. Counters are safe to update from every generation thread.
+ */
+class GenerationMetrics {
+    static final String REPORT_FILE_NAME = "generation-metrics.json";
+    private static final int SLOWEST_OPERATIONS = 10;
+
+    private final long start = System.nanoTime();
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+    private final Map<String, Long> operationNanos = new ConcurrentHashMap<>();
+    private final LongAdder operationsSkipped = new LongAdder();
+    private final LongAdder bodiesRendered = new LongAdder();
+    private final LongAdder filesWritten = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+
+    /**
+     * @param phase
+     * @param startNanos when the phase started, from {@link System#nanoTime()}
+     */
+    synchronized void phase(String phase, long startNanos) {
+        phaseNanos.put(phase, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @param operation
+     * @param startNanos when generation of the operation started, from {@link System#nanoTime()}
+     */
+    void operation(String operation, long startNanos) {
+        operationNanos.put(operation, System.nanoTime() - startNanos);
+    }
+
+    void operationSkipped() {
+        operationsSkipped.increment();
+    }
+
+    /**
+     * @return the number of operations generated or skipped so far
+     */
+    int operationsCompleted() {
+        return operationNanos.size() + operationsSkipped.intValue();
+    }
+
+    void bodyRendered() {
+        bodiesRendered.increment();
+    }
+
+    /**
+     * @param outputStream a stream to a newly created file
+     * @return the stream, counting the file and the bytes written to it
+     */
+    OutputStream meter(OutputStream outputStream) {
+        filesWritten.increment();
+
+        return new FilterOutputStream(outputStream) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytesWritten.increment();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                bytesWritten.add(len);
+            }
+        };
+    }
+
+    /**
+     * @param exampleCache the cache used over the run
+     * @param options the options generated with
+     * @return the report, in an order suited to reading
+     */
+    synchronized Map<String, Object> report(ExampleCache exampleCache, GenerationOptions options) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("total-millis", millis(System.nanoTime() - start));
+        report.put("threads", options.getThreads());
+
+        Map<String, Object> phases = new LinkedHashMap<>();
+        phaseNanos.forEach((phase, nanos) -> phases.put(phase + "-millis", millis(nanos)));
+        report.put("phases", phases);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        operations.put("generated", operationNanos.size());
+        operations.put("skipped", operationsSkipped.sum());
+        operations.put("mean-millis", operationNanos.isEmpty() ? 0 : millis(operationNanos.values().stream().mapToLong(Long::longValue).sum() / operationNanos.size()));
+        List<Map<String, Object>> slowest = new ArrayList<>();
+
+        operationNanos.entrySet().stream().sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey())).limit(SLOWEST_OPERATIONS).forEach(e -> {
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("operation", e.getKey());
+            operation.put("millis", millis(e.getValue()));
+            slowest.add(operation);
+        });
+
+        operations.put("slowest", slowest);
+        report.put("operations", operations);
+
+        Map<String, Object> rendering = new LinkedHashMap<>();
+        rendering.put("bodies-rendered", bodiesRendered.sum());
+        rendering.put("components-rendered", exampleCache.getRenders());
+        rendering.put("component-cache-hits", exampleCache.getHits());
+        report.put("rendering", rendering);
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("files-written", filesWritten.sum());
+        output.put("bytes-written", bytesWritten.sum());
+        report.put("output", output);
+        return report;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+}
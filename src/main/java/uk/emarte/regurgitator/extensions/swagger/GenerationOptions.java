@@ -0,0 +1,377 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import java.io.File;
+
+/**
+ * Options controlling how regurgitator configuration is generated. Defaults match the behaviour of the
+ * generator when run without options.
+ */
+public class GenerationOptions {
+    static final String USAGE_TEXT = "Options:" + System.lineSeparator() +
+            "  --threads=N                  number of operations to generate in parallel (default 1)" + System.lineSeparator() +
+            "  --routing=flat|trie          one routing rule per operation, or rules nested by path segment (default flat)" + System.lineSeparator() +
+            "  --partition-by-method        branch on request method first, with one path decision per method" + System.lineSeparator() +
+            "  --static-routes-first        rule literal paths ahead of templated ones, templated ordered most specific first" + System.lineSeparator() +
+            "  --stream-json-examples       write json examples straight to file rather than building them in memory first;" + System.lineSeparator() +
+            "                               postman examples are then omitted for json bodies" + System.lineSeparator() +
+            "  --incremental                keep a manifest in the output directory and only regenerate operations whose" + System.lineSeparator() +
+            "                               inputs have changed, removing those no longer in the spec" + System.lineSeparator() +
+            "  --watch                      stay running, regenerating incrementally whenever the swagger file or a file" + System.lineSeparator() +
+            "                               it references changes" + System.lineSeparator() +
+            "  --single-document            inline every operation's steps in the routing configuration, writing one" + System.lineSeparator() +
+            "                               configuration document rather than one per operation" + System.lineSeparator() +
+            "  --inline-threshold=N         respond with bodies under N bytes from the response step's value rather than" + System.lineSeparator() +
+            "                               a file (default 0, never)" + System.lineSeparator() +
+            "  --shared-assets              save each distinct example body once, under the hash of its contents, in a" + System.lineSeparator() +
+            "                               shared assets directory" + System.lineSeparator() +
+            "  --metrics-report             write per phase timings and counters for the run to generation-metrics.json" + System.lineSeparator() +
+            "  --quiet                      log nothing but warnings and errors, rather than a summary of each phase and" + System.lineSeparator() +
+            "                               periodic progress" + System.lineSeparator() +
+            "  --spec-cache=DIR             keep parsed open api models in DIR, keyed by the hash of the swagger file and" + System.lineSeparator() +
+            "                               the files it references, so an unchanged spec is not parsed again" + System.lineSeparator() +
+            "  --include=SELECTOR[,...]     only generate operations matching a selector: tag:NAME, path:GLOB (* within a" + System.lineSeparator() +
+            "                               path segment, ** across segments), method:METHOD or operation:OPERATION_ID" + System.lineSeparator() +
+            "  --exclude=SELECTOR[,...]     do not generate operations matching a selector, even when included" + System.lineSeparator() +
+            "  --single-pass-path           read the params of a path with several from one substitution of the request" + System.lineSeparator() +
+            "                               uri, rather than extracting each from it in turn; values must not hold commas";
+
+    /**
+     * the shape of the top level routing decision
+     */
+    public enum Routing {
+        /** one rule per operation, each evaluated against every request */
+        flat,
+        /** decisions nested by path segment, so a request only evaluates the rules under its own path prefix */
+        trie
+    }
+
+    private int threads = 1;
+    private Routing routing = Routing.flat;
+    private boolean partitionByMethod = false;
+    private boolean staticRoutesFirst = false;
+    private boolean streamJsonExamples = false;
+    private boolean incremental = false;
+    private boolean watch = false;
+    private boolean singleDocument = false;
+    private int inlineThreshold = 0;
+    private boolean sharedAssets = false;
+    private boolean metricsReport = false;
+    private boolean quiet = false;
+    private File specCache = null;
+    private boolean singlePassPath = false;
+    private final OperationFilter operationFilter = new OperationFilter();
+
+    /**
+     * parses generation options from command line arguments of the form --name=value
+     *
+     * @param args option arguments
+     * @return the parsed options
+     * @throws IllegalArgumentException if an argument is not a recognised option or has an invalid value
+     */
+    public static GenerationOptions parse(String... args) {
+        GenerationOptions options = new GenerationOptions();
+
+        for (String arg : args) {
+            int equalsIndex = arg.indexOf("=");
+            String name = equalsIndex != -1 ? arg.substring(0, equalsIndex) : arg;
+            String value = equalsIndex != -1 ? arg.substring(equalsIndex + 1) : null;
+
+            switch (name) {
+                case "--threads": options.withThreads(parseInt(name, value)); break;
+                case "--routing": options.withRouting(parseEnum(name, value, Routing.class)); break;
+                case "--partition-by-method": options.withPartitionByMethod(parseBoolean(name, value)); break;
+                case "--static-routes-first": options.withStaticRoutesFirst(parseBoolean(name, value)); break;
+                case "--stream-json-examples": options.withStreamJsonExamples(parseBoolean(name, value)); break;
+                case "--incremental": options.withIncremental(parseBoolean(name, value)); break;
+                case "--watch": options.withWatch(parseBoolean(name, value)); break;
+                case "--single-document": options.withSingleDocument(parseBoolean(name, value)); break;
+                case "--inline-threshold": options.withInlineThreshold(parseInt(name, value)); break;
+                case "--shared-assets": options.withSharedAssets(parseBoolean(name, value)); break;
+                case "--metrics-report": options.withMetricsReport(parseBoolean(name, value)); break;
+                case "--quiet": options.withQuiet(parseBoolean(name, value)); break;
+                case "--spec-cache": options.withSpecCache(parseFile(name, value)); break;
+                case "--include": options.withInclude(parseList(name, value)); break;
+                case "--exclude": options.withExclude(parseList(name, value)); break;
+                case "--single-pass-path": options.withSinglePassPath(parseBoolean(name, value)); break;
+                default: throw new IllegalArgumentException("Invalid option: " + arg);
+            }
+        }
+
+        return options;
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("Invalid value for option " + name + ": " + value);
+        }
+    }
+
+    private static boolean parseBoolean(String name, String value) {
+        if (value == null || "true".equals(value)) {
+            return true;
+        }
+
+        if ("false".equals(value)) {
+            return false;
+        }
+
+        throw new IllegalArgumentException("Invalid value for option " + name + ": " + value);
+    }
+
+    private static File parseFile(String name, String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Invalid value for option " + name + ": " + value);
+        }
+
+        return new File(value);
+    }
+
+    private static String[] parseList(String name, String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Invalid value for option " + name + ": " + value);
+        }
+
+        return value.split(",");
+    }
+
+    private static <TYPE extends Enum<TYPE>> TYPE parseEnum(String name, String value, Class<TYPE> type) {
+        try {
+            return Enum.valueOf(type, String.valueOf(value));
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalArgumentException("Invalid value for option " + name + ": " + value);
+        }
+    }
+
+    /**
+     * @param threads the number of operations to generate in parallel; output is identical whatever the count
+     * @return these options
+     */
+    public GenerationOptions withThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+
+        this.threads = threads;
+        return this;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @param routing the shape of the top level routing decision
+     * @return these options
+     */
+    public GenerationOptions withRouting(Routing routing) {
+        this.routing = routing;
+        return this;
+    }
+
+    public Routing getRouting() {
+        return routing;
+    }
+
+    /**
+     * @param partitionByMethod whether the routing decision branches on request method first, handing off to one path decision per method
+     * @return these options
+     */
+    public GenerationOptions withPartitionByMethod(boolean partitionByMethod) {
+        this.partitionByMethod = partitionByMethod;
+        return this;
+    }
+
+    public boolean isPartitionByMethod() {
+        return partitionByMethod;
+    }
+
+    /**
+     * @param staticRoutesFirst whether flat routing rules literal paths in an exact match decision ahead of templated paths, templated paths being ordered most literal segments first
+     * @return these options
+     */
+    public GenerationOptions withStaticRoutesFirst(boolean staticRoutesFirst) {
+        this.staticRoutesFirst = staticRoutesFirst;
+        return this;
+    }
+
+    public boolean isStaticRoutesFirst() {
+        return staticRoutesFirst;
+    }
+
+    /**
+     * @param streamJsonExamples whether json examples are written straight to file as they are generated, rather than built in memory first; json bodies are then not included in the postman collection
+     * @return these options
+     */
+    public GenerationOptions withStreamJsonExamples(boolean streamJsonExamples) {
+        this.streamJsonExamples = streamJsonExamples;
+        return this;
+    }
+
+    public boolean isStreamJsonExamples() {
+        return streamJsonExamples;
+    }
+
+    /**
+     * @param incremental whether generation keeps a manifest in the output directory, regenerating only the operations whose inputs have changed since the last generation and removing those no longer in the spec
+     * @return these options
+     */
+    public GenerationOptions withIncremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * @param watch whether the command line generator stays running after generating, regenerating incrementally whenever the swagger file or a file it references changes
+     * @return these options
+     */
+    public GenerationOptions withWatch(boolean watch) {
+        this.watch = watch;
+        return this;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * @param singleDocument whether each operation's steps are inlined as a sequence in the routing configuration, so a single configuration document is written rather than one per operation
+     * @return these options
+     */
+    public GenerationOptions withSingleDocument(boolean singleDocument) {
+        this.singleDocument = singleDocument;
+        return this;
+    }
+
+    public boolean isSingleDocument() {
+        return singleDocument;
+    }
+
+    /**
+     * @param inlineThreshold the size in bytes under which response bodies are set as the value of their response step rather than saved to a file; 0 never inlines
+     * @return these options
+     */
+    public GenerationOptions withInlineThreshold(int inlineThreshold) {
+        if (inlineThreshold < 0) {
+            throw new IllegalArgumentException("Inline threshold cannot be negative: " + inlineThreshold);
+        }
+
+        this.inlineThreshold = inlineThreshold;
+        return this;
+    }
+
+    public int getInlineThreshold() {
+        return inlineThreshold;
+    }
+
+    /**
+     * @param sharedAssets whether each distinct example body is saved once, named by the hash of its contents, in a shared assets directory referenced by every operation that uses it
+     * @return these options
+     */
+    public GenerationOptions withSharedAssets(boolean sharedAssets) {
+        this.sharedAssets = sharedAssets;
+        return this;
+    }
+
+    public boolean isSharedAssets() {
+        return sharedAssets;
+    }
+
+    /**
+     * @param metricsReport whether timings of each generation phase and operation, and counts of what was rendered and written, are saved as json alongside the generated configuration
+     * @return these options
+     */
+    public GenerationOptions withMetricsReport(boolean metricsReport) {
+        this.metricsReport = metricsReport;
+        return this;
+    }
+
+    public boolean isMetricsReport() {
+        return metricsReport;
+    }
+
+    /**
+     * @param quiet whether progress of generation is left unlogged; detail of each step is logged at debug level whatever this is set to
+     * @return these options
+     */
+    public GenerationOptions withQuiet(boolean quiet) {
+        this.quiet = quiet;
+        return this;
+    }
+
+    public boolean isQuiet() {
+        return quiet;
+    }
+
+    /**
+     * @param specCache a directory in which parsed open api models are kept, keyed by the hash of the swagger file and every local file it references, so that generating again from an unchanged spec skips parsing; null to always parse
+     * @return these options
+     */
+    public GenerationOptions withSpecCache(File specCache) {
+        this.specCache = specCache;
+        return this;
+    }
+
+    public File getSpecCache() {
+        return specCache;
+    }
+
+    /**
+     * @param selectors selectors of operations to generate, of the form tag:NAME, path:GLOB, method:METHOD or operation:OPERATION_ID; when any are given, operations matching none of them are skipped
+     * @return these options
+     * @throws IllegalArgumentException if a selector is not valid
+     */
+    public GenerationOptions withInclude(String... selectors) {
+        for (String selector : selectors) {
+            operationFilter.include(selector);
+        }
+
+        return this;
+    }
+
+    /**
+     * @param selectors selectors of operations not to generate, of the form tag:NAME, path:GLOB, method:METHOD or operation:OPERATION_ID, taking precedence over those included
+     * @return these options
+     * @throws IllegalArgumentException if a selector is not valid
+     */
+    public GenerationOptions withExclude(String... selectors) {
+        for (String selector : selectors) {
+            operationFilter.exclude(selector);
+        }
+
+        return this;
+    }
+
+    OperationFilter getOperationFilter() {
+        return operationFilter;
+    }
+
+    /**
+     * @param singlePassPath whether a path with several params has the request uri rewritten once, by a substitution, as a comma separated list of their values, each param then being read from the list by index; a value holding a comma is split across the list, shifting the values after it
+     * @return these options
+     */
+    public GenerationOptions withSinglePassPath(boolean singlePassPath) {
+        this.singlePassPath = singlePassPath;
+        return this;
+    }
+
+    public boolean isSinglePassPath() {
+        return singlePassPath;
+    }
+
+    /**
+     * @return a summary of the options that change what is generated for an operation, so that operations generated under different options are never taken to be current
+     */
+    String outputSignature() {
+        return "stream-json-examples=" + streamJsonExamples + ",inline-threshold=" + inlineThreshold + ",shared-assets=" + sharedAssets + ",single-pass-path=" + singlePassPath;
+    }
+}
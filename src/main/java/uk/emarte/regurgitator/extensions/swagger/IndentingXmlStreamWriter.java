@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Wraps an xml stream writer to lay its output out as the dom transformer did: four space indentation,
+ * text only elements kept on one line and elements without content collapsed to a single empty tag. Start
+ * tags are held back until their first child, text or end, so that whether an element is empty need not be
+ * known when it is started.
+ */
+class IndentingXmlStreamWriter implements XMLStreamWriter {
+    private static final String NEW_LINE = "\n";
+    private static final String INDENT = "    ";
+
+    private final XMLStreamWriter writer;
+    private final Deque<Boolean> hasChildElements = new ArrayDeque<>();
+    private final List<String[]> pendingAttributes = new ArrayList<>();
+    private String pendingElement;
+    private boolean pendingEmpty;
+    private boolean documentStarted;
+
+    IndentingXmlStreamWriter(XMLStreamWriter writer) {
+        this.writer = writer;
+    }
+
+    private void flushPending() throws XMLStreamException {
+        if (pendingEmpty) {
+            pendingEmpty = false;
+            writeEndElement();
+        }
+
+        if (pendingElement != null) {
+            writer.writeStartElement(pendingElement);
+
+            for (String[] attribute : pendingAttributes) {
+                writer.writeAttribute(attribute[0], attribute[1]);
+            }
+
+            pendingElement = null;
+            pendingAttributes.clear();
+        }
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix != null && prefix.length() > 0 ? prefix + ":" + localName : localName;
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        flushPending();
+
+        if (!hasChildElements.isEmpty()) {
+            hasChildElements.pop();
+            hasChildElements.push(true);
+            writer.writeCharacters(NEW_LINE);
+
+            for (int i = 0; i < hasChildElements.size(); i++) {
+                writer.writeCharacters(INDENT);
+            }
+        } else if (documentStarted) {
+            writer.writeCharacters(NEW_LINE);
+        }
+
+        pendingElement = localName;
+        hasChildElements.push(false);
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        writeStartElement(localName);
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        writeStartElement(qualifiedName(prefix, localName));
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        writeStartElement(localName);
+        pendingEmpty = true;
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        writeEmptyElement(localName);
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        writeEmptyElement(qualifiedName(prefix, localName));
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        if (pendingEmpty) {
+            pendingEmpty = false;
+            writeEndElement();
+        }
+
+        if (pendingElement != null) {
+            writer.writeEmptyElement(pendingElement);
+
+            for (String[] attribute : pendingAttributes) {
+                writer.writeAttribute(attribute[0], attribute[1]);
+            }
+
+            pendingElement = null;
+            pendingAttributes.clear();
+            hasChildElements.pop();
+        } else {
+            if (hasChildElements.pop()) {
+                writer.writeCharacters(NEW_LINE);
+
+                for (int i = 0; i < hasChildElements.size(); i++) {
+                    writer.writeCharacters(INDENT);
+                }
+            }
+
+            writer.writeEndElement();
+        }
+
+        if (hasChildElements.isEmpty()) {
+            writer.writeCharacters(NEW_LINE);
+        }
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        flushPending();
+
+        while (!hasChildElements.isEmpty()) {
+            writeEndElement();
+        }
+
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        writer.close();
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        writer.flush();
+    }
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        if (pendingElement != null) {
+            pendingAttributes.add(new String[] {localName, value});
+        } else {
+            writer.writeAttribute(localName, value);
+        }
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+        writeAttribute(qualifiedName(prefix, localName), value);
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        writeAttribute(localName, value);
+    }
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        writeAttribute(qualifiedName("xmlns", prefix), namespaceURI);
+    }
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        writeAttribute("xmlns", namespaceURI);
+    }
+
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+        flushPending();
+        writer.writeComment(data);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        flushPending();
+        writer.writeProcessingInstruction(target);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        flushPending();
+        writer.writeProcessingInstruction(target, data);
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        flushPending();
+        writer.writeCData(data);
+    }
+
+    @Override
+    public void writeDTD(String dtd) throws XMLStreamException {
+        writer.writeDTD(dtd);
+    }
+
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+        flushPending();
+        writer.writeEntityRef(name);
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        writer.writeStartDocument();
+        documentStarted = true;
+    }
+
+    @Override
+    public void writeStartDocument(String version) throws XMLStreamException {
+        writer.writeStartDocument(version);
+        documentStarted = true;
+    }
+
+    @Override
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        writer.writeStartDocument(encoding, version);
+        documentStarted = true;
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        flushPending();
+        writer.writeCharacters(text);
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        flushPending();
+        writer.writeCharacters(text, start, len);
+    }
+
+    @Override
+    public String getPrefix(String uri) throws XMLStreamException {
+        return writer.getPrefix(uri);
+    }
+
+    @Override
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        writer.setPrefix(prefix, uri);
+    }
+
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        writer.setDefaultNamespace(uri);
+    }
+
+    @Override
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+        writer.setNamespaceContext(context);
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return writer.getNamespaceContext();
+    }
+
+    @Override
+    public Object getProperty(String name) throws IllegalArgumentException {
+        return writer.getProperty(name);
+    }
+}
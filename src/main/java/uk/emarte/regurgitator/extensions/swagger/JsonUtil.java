@@ -4,18 +4,22 @@
  */
 package uk.emarte.regurgitator.extensions.swagger;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.swagger.v3.oas.models.Components;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.models.media.ObjectSchema;
 import io.swagger.v3.oas.models.media.Schema;
 
-import java.io.FileOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -24,25 +28,51 @@ import static java.util.Collections.singletonList;
 
 public class JsonUtil {
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter PRETTY_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFERS = ThreadLocal.withInitial(ByteArrayOutputStream::new);
 
     private static final String STRING = "string", INTEGER = "integer", DOUBLE = "double", FLOAT = "float", NUMBER = "number", OBJECT = "object", BOOLEAN = "boolean", INT_32 = "int32", INT_64 = "int64", ARRAY = "array";
 
     private static final String EX_STR = "abcdefgh", EX_NUM = "1";
 
-    static String saveToJson(Object object, FileOutputStream fileOutputStream) throws IOException {
-        MAPPER.writerWithDefaultPrettyPrinter().writeValue(fileOutputStream, object);
-        return MAPPER.writeValueAsString(object);
+    static String saveToJson(Object object, OutputStream outputStream) throws IOException {
+        ByteArrayOutputStream buffer = BUFFERS.get();
+        buffer.reset();
+        PRETTY_WRITER.writeValue(buffer, object);
+
+        try (OutputStream target = outputStream) {
+            buffer.writeTo(target);
+        }
+
+        return buffer.toString("UTF-8");
     }
 
-    @SuppressWarnings("rawtypes")
-    static Object buildJsonObject(Schema<?> schema, Components components, int level) {
-        if(level >= 20) {
-            return EMPTY_MAP;
+    static String fingerprint(Object object) throws IOException {
+        return OperationFingerprinter.hex(OperationFingerprinter.newDigest().digest(MAPPER.writeValueAsBytes(object)));
+    }
+
+    static void streamToJson(Schema<?> schema, ComponentGraph graph, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(outputStream)) {
+            generator.useDefaultPrettyPrinter();
+            writeJsonObject(schema, graph, new HashSet<>(), generator);
         }
+    }
 
+    @SuppressWarnings("rawtypes")
+    static Object buildJsonObject(Schema<?> schema, ComponentGraph graph, ExampleCache cache, Set<String> componentPath) {
         if (schema.get$ref() != null) {
-            String ref = schema.get$ref();
-            schema = components.getSchemas().get(ref.contains("/") ? ref.substring(ref.lastIndexOf("/") + 1) : ref);
+            String componentName = ComponentGraph.componentName(schema.get$ref());
+
+            if (!componentPath.add(componentName)) {
+                return EMPTY_MAP; // reference cycle closes here
+            }
+
+            try {
+                Schema<?> componentSchema = graph.schema(componentName);
+                return cache.json(componentName, () -> buildJsonObject(componentSchema, graph, cache, componentPath));
+            } finally {
+                componentPath.remove(componentName);
+            }
         }
 
         if(schema.getExample() != null) {
@@ -55,50 +85,123 @@ public class JsonUtil {
 
             for (String name : properties.keySet()) {
                 Schema<?> propertySchema = properties.get(name);
-                String type = propertySchema.getType();
-
-                if (ARRAY.equals(type)) {
-                    objectContents.put(name, singletonList(buildJsonObject(propertySchema.getItems(), components, level + 1)));
-                } else if (INTEGER.equals(type)) {
-                    if(propertySchema.getFormat() != null) {
-                        switch (propertySchema.getFormat()) {
-                            case INT_64: objectContents.put(name, getNumberObject(propertySchema, Long::parseLong, BigDecimal::longValue)); break;
-                            case INT_32:
-                            default: objectContents.put(name, getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue));
-                        }
-                    } else {
-                        objectContents.put(name, getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue));
-                    }
-                } else if (NUMBER.equals(type)) {
-                    if(propertySchema.getFormat() != null) {
-                        switch (propertySchema.getFormat()) {
-                            case FLOAT: objectContents.put(name, getNumberObject(propertySchema, Float::parseFloat, BigDecimal::floatValue)); break;
-                            case DOUBLE: objectContents.put(name, getNumberObject(propertySchema, Double::parseDouble, BigDecimal::doubleValue)); break;
-                            default: objectContents.put(name, getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue));
-                        }
-                    } else {
-                        objectContents.put(name, getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue));
-                    }
-                } else if (OBJECT.equals(type)) {
-                    objectContents.put(name, buildJsonObject(propertySchema, components, level + 1));
-                } else if (BOOLEAN.equals(type)) {
-                    objectContents.put(name, Boolean.parseBoolean("" + (propertySchema.getExample() != null ? propertySchema.getExample() : false)));
-                } else if (propertySchema.get$ref() != null) {
-                    String ref = propertySchema.get$ref();
-                    objectContents.put(name, buildJsonObject(components.getSchemas().get(ref.contains("/") ? ref.substring(ref.lastIndexOf("/") + 1) : ref), components, level + 1));
-                } else { // assume string
-                    objectContents.put(name, getStringValue(propertySchema));
+
+                if (ARRAY.equals(propertySchema.getType())) {
+                    objectContents.put(name, singletonList(buildJsonObject(propertySchema.getItems(), graph, cache, componentPath)));
+                } else if (isNested(propertySchema)) {
+                    objectContents.put(name, buildJsonObject(propertySchema, graph, cache, componentPath));
+                } else {
+                    objectContents.put(name, getScalarValue(propertySchema));
                 }
             }
 
             return objectContents;
         } else if (ARRAY.equals(schema.getType())) {
-            return singletonList(buildJsonObject(schema.getItems(), components, level + 1));
+            return singletonList(buildJsonObject(schema.getItems(), graph, cache, componentPath));
         }
 
         return getStringValue(schema);
     }
 
+    /**
+     * writes the example for a schema straight to a json generator, without building the intermediate
+     * map tree first. nothing is held in memory beyond the current path through the schema.
+     *
+     * @param schema
+     * @param graph
+     * @param componentPath
+     * @param generator
+     * @throws IOException
+     */
+    @SuppressWarnings("rawtypes")
+    static void writeJsonObject(Schema<?> schema, ComponentGraph graph, Set<String> componentPath, JsonGenerator generator) throws IOException {
+        if (schema.get$ref() != null) {
+            String componentName = ComponentGraph.componentName(schema.get$ref());
+
+            if (!componentPath.add(componentName)) {
+                generator.writeStartObject(); // reference cycle closes here
+                generator.writeEndObject();
+                return;
+            }
+
+            try {
+                writeJsonObject(graph.schema(componentName), graph, componentPath, generator);
+            } finally {
+                componentPath.remove(componentName);
+            }
+
+            return;
+        }
+
+        if(schema.getExample() != null) {
+            generator.writeObject(schema.getExample());
+            return;
+        }
+
+        if (schema.getProperties() != null || schema.getAdditionalProperties() != null) {
+            Map<String, Schema> properties = schema.getProperties() != null ? schema.getProperties() : ((ObjectSchema) schema.getAdditionalProperties()).getProperties();
+            generator.writeStartObject();
+
+            for (String name : properties.keySet()) {
+                Schema<?> propertySchema = properties.get(name);
+                generator.writeFieldName(name);
+
+                if (ARRAY.equals(propertySchema.getType())) {
+                    generator.writeStartArray();
+                    writeJsonObject(propertySchema.getItems(), graph, componentPath, generator);
+                    generator.writeEndArray();
+                } else if (isNested(propertySchema)) {
+                    writeJsonObject(propertySchema, graph, componentPath, generator);
+                } else {
+                    generator.writeObject(getScalarValue(propertySchema));
+                }
+            }
+
+            generator.writeEndObject();
+        } else if (ARRAY.equals(schema.getType())) {
+            generator.writeStartArray();
+            writeJsonObject(schema.getItems(), graph, componentPath, generator);
+            generator.writeEndArray();
+        } else {
+            generator.writeString(getStringValue(schema));
+        }
+    }
+
+    private static boolean isNested(Schema<?> propertySchema) {
+        String type = propertySchema.getType();
+        return OBJECT.equals(type) || (propertySchema.get$ref() != null && !INTEGER.equals(type) && !NUMBER.equals(type) && !BOOLEAN.equals(type));
+    }
+
+    private static Object getScalarValue(Schema<?> propertySchema) {
+        String type = propertySchema.getType();
+
+        if (INTEGER.equals(type)) {
+            if(propertySchema.getFormat() != null) {
+                switch (propertySchema.getFormat()) {
+                    case INT_64: return getNumberObject(propertySchema, Long::parseLong, BigDecimal::longValue);
+                    case INT_32:
+                    default: return getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue);
+                }
+            }
+
+            return getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue);
+        } else if (NUMBER.equals(type)) {
+            if(propertySchema.getFormat() != null) {
+                switch (propertySchema.getFormat()) {
+                    case FLOAT: return getNumberObject(propertySchema, Float::parseFloat, BigDecimal::floatValue);
+                    case DOUBLE: return getNumberObject(propertySchema, Double::parseDouble, BigDecimal::doubleValue);
+                    default: return getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue);
+                }
+            }
+
+            return getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue);
+        } else if (BOOLEAN.equals(type)) {
+            return Boolean.parseBoolean("" + (propertySchema.getExample() != null ? propertySchema.getExample() : false));
+        }
+
+        return getStringValue(propertySchema); // assume string
+    }
+
     private static <TYPE> Object getNumberObject(Schema<?> propertySchema, Function<String, TYPE> objectFunction, Function<BigDecimal, TYPE> decimalFunction) {
         if(propertySchema.getExample() != null) {
             return objectFunction.apply("" + propertySchema.getExample());
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Holds generated files in memory, by path, for callers that load or package the configuration themselves
+ */
+public class MemoryOutputSink implements OutputSink {
+    private final SortedMap<String, byte[]> files = new ConcurrentSkipListMap<>();
+    private final Set<String> directories = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean createDirectory(String path) {
+        return directories.add(path);
+    }
+
+    @Override
+    public OutputStream newOutputStream(String path) {
+        return new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                files.put(path, toByteArray());
+            }
+        };
+    }
+
+    /**
+     * @return the contents of every generated file, by path
+     */
+    public Map<String, byte[]> getFiles() {
+        return Collections.unmodifiableMap(files);
+    }
+
+    @Override
+    public void close() {
+    }
+}
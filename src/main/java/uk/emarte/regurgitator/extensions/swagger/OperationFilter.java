@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.Operation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the operations to generate configuration for, by tag, path glob, http method or operation id. An
+ * operation is selected when it matches any include, or there are none, and matches no exclude. Selection
+ * happens before any example is rendered, so unselected operations cost nothing beyond parsing the spec.
+ */
+class OperationFilter {
+    /**
+     * the part of an operation a selector matches against
+     */
+    enum Criterion {
+        /** one of the operation's tags */
+        tag,
+        /** the operation's path, as written in the spec, against a glob where * matches within a path segment and ** across segments */
+        path,
+        /** the operation's http method */
+        method,
+        /** the operation's id */
+        operation
+    }
+
+    private final List<Selector> includes = new ArrayList<>();
+    private final List<Selector> excludes = new ArrayList<>();
+
+    /**
+     * @param selector a selector of the form criterion:value, e.g. tag:pets or path:/pets/**
+     * @throws IllegalArgumentException if the selector is not valid
+     */
+    void include(String selector) {
+        includes.add(Selector.parse(selector));
+    }
+
+    /**
+     * @param selector a selector of the form criterion:value, e.g. method:DELETE or operation:deletePet
+     * @throws IllegalArgumentException if the selector is not valid
+     */
+    void exclude(String selector) {
+        excludes.add(Selector.parse(selector));
+    }
+
+    boolean isEmpty() {
+        return includes.isEmpty() && excludes.isEmpty();
+    }
+
+    /**
+     * @param path the path of the operation, as written in the spec
+     * @param method
+     * @param operation
+     * @return whether configuration is generated for the operation
+     */
+    boolean selects(String path, Method method, Operation operation) {
+        return (includes.isEmpty() || matchesAny(includes, path, method, operation)) && !matchesAny(excludes, path, method, operation);
+    }
+
+    private static boolean matchesAny(List<Selector> selectors, String path, Method method, Operation operation) {
+        for (Selector selector : selectors) {
+            if (selector.matches(path, method, operation)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static class Selector {
+        private final Criterion criterion;
+        private final String value;
+        private final Pattern pathPattern;
+
+        private Selector(Criterion criterion, String value) {
+            this.criterion = criterion;
+            this.value = criterion == Criterion.method ? value.toUpperCase(Locale.ROOT) : value;
+            this.pathPattern = criterion == Criterion.path ? globPattern(value) : null;
+        }
+
+        private static Selector parse(String selector) {
+            int colonIndex = selector.indexOf(":");
+
+            if (colonIndex == -1 || colonIndex == selector.length() - 1) {
+                throw new IllegalArgumentException("Invalid operation selector, expected criterion:value: " + selector);
+            }
+
+            Selector parsed;
+
+            try {
+                parsed = new Selector(Criterion.valueOf(selector.substring(0, colonIndex)), selector.substring(colonIndex + 1));
+            } catch (IllegalArgumentException iae) {
+                throw new IllegalArgumentException("Invalid operation selector, criterion must be one of tag, path, method or operation: " + selector);
+            }
+
+            if (parsed.criterion == Criterion.method) {
+                try {
+                    Method.valueOf(parsed.value);
+                } catch (IllegalArgumentException iae) {
+                    throw new IllegalArgumentException("Invalid operation selector, unknown method: " + selector);
+                }
+            }
+
+            return parsed;
+        }
+
+        private static Pattern globPattern(String glob) {
+            StringBuilder regex = new StringBuilder();
+
+            for (int i = 0; i < glob.length(); i++) {
+                char c = glob.charAt(i);
+
+                if (c == '*' && i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else if (c == '*') {
+                    regex.append("[^/]*");
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+
+            return Pattern.compile(regex.toString());
+        }
+
+        private boolean matches(String path, Method method, Operation operation) {
+            switch (criterion) {
+                case tag: return operation.getTags() != null && operation.getTags().contains(value);
+                case path: return pathPattern.matcher(path).matches();
+                case method: return method.name().equals(value);
+                default: return value.equals(operation.getOperationId());
+            }
+        }
+    }
+}
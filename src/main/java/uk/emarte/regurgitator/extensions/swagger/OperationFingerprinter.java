@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Components;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Fingerprints the resolved inputs of an operation - the operation itself, its path level parameters, every
+ * component it reaches through $refs and the options that shape its output - so that an operation whose
+ * fingerprint is unchanged since the last generation need not be generated again.
+ */
+class OperationFingerprinter {
+    private static final String COMPONENTS_PREFIX = "#/components";
+    private static final String REF = "$ref";
+
+    private final ObjectMapper mapper = Json.mapper();
+    private final JsonNode components;
+    private final String outputSignature;
+
+    OperationFingerprinter(Components components, String outputSignature) {
+        this.components = components != null ? mapper.valueToTree(components) : mapper.createObjectNode();
+        this.outputSignature = outputSignature;
+    }
+
+    String fingerprint(Route route) {
+        MessageDigest digest = newDigest();
+        JsonNode operation = mapper.valueToTree(route.getOperation());
+        JsonNode parameters = mapper.valueToTree(route.getPathItem().getParameters());
+        update(digest, outputSignature);
+        update(digest, route.getMethod().name());
+        update(digest, route.getPath());
+        update(digest, operation.toString());
+        update(digest, parameters.toString());
+
+        Set<String> references = new TreeSet<>();
+        Deque<JsonNode> pending = new ArrayDeque<>();
+        pending.push(operation);
+        pending.push(parameters);
+
+        while (!pending.isEmpty()) {
+            JsonNode node = pending.pop();
+
+            if (node.isObject() && node.has(REF)) {
+                String reference = node.get(REF).asText();
+
+                if (reference.startsWith(COMPONENTS_PREFIX) && references.add(reference)) {
+                    pending.push(components.at(reference.substring(COMPONENTS_PREFIX.length())));
+                }
+            }
+
+            for (Iterator<JsonNode> children = node.elements(); children.hasNext(); ) {
+                pending.push(children.next());
+            }
+        }
+
+        for (String reference : references) {
+            update(digest, reference);
+            update(digest, components.at(reference.substring(COMPONENTS_PREFIX.length())).toString());
+        }
+
+        return hex(digest.digest());
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 not supported", nsae);
+        }
+    }
+
+    static String hex(byte[] bytes) {
+        return String.format("%0" + (bytes.length * 2) + "x", new BigInteger(1, bytes));
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
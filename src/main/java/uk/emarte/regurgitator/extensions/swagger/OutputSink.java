@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Destination for generated configuration files. Paths are relative and '/' separated, each operation having
+ * its files under a directory of its own. Sinks may be written to from several generation threads at once.
+ */
+public interface OutputSink extends Closeable {
+    /**
+     * @param path the path of the directory
+     * @return true if the directory was created, false if it already existed
+     * @throws IOException if the directory cannot be created
+     */
+    boolean createDirectory(String path) throws IOException;
+
+    /**
+     * @param path the path of the file, whose directory need not have been created
+     * @return a stream for the contents of the file, which is complete once the stream is closed
+     * @throws IOException if the file cannot be written
+     */
+    OutputStream newOutputStream(String path) throws IOException;
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.parameters.Parameter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * A path template, such as /pets/{petId}/toys/{toyId}, tokenised once into the literal text between its
+ * parameters and the parameters' names, from which the routing regex, the extract format and the postman path
+ * are all built. Compiled templates are immutable, so one can be shared by every operation on the same path.
+ */
+class PathTemplate {
+    private static final String NUMERIC = "0-9", ALPHA_NUMERIC = "A-Za-z0-9-";
+    private static final String STRING = "string", INTEGER = "integer", PATH = "path";
+    private static final String REGEX_SPECIAL_CHARS = "\\^$.|?*+()[]{}", VALUE_CAPTURE = "([^\\/]*?)";
+    private static final String VALUE_SEPARATOR = ",", LIST_TERMINATOR = "-";
+
+    private final String template;
+    private final List<String> literals;
+    private final List<String> parameterNames;
+    private final List<String> segments;
+    private final String extractFormat;
+    private final String postmanPath;
+    private final String[] postmanSegments;
+    private final String captureRegex;
+    private final String captureReplacement;
+
+    private PathTemplate(String template, List<String> literals, List<String> parameterNames) {
+        this.template = template;
+        this.literals = unmodifiableList(literals);
+        this.parameterNames = unmodifiableList(parameterNames);
+        List<String> segments = new ArrayList<>();
+        StringBuilder extractFormat = new StringBuilder(literals.get(0));
+
+        for (int i = 0; i < parameterNames.size(); i++) {
+            extractFormat.append("{").append(i).append("}").append(literals.get(i + 1));
+        }
+
+        for (String segment : template.split("/")) {
+            if (segment.length() > 0) {
+                segments.add(segment);
+            }
+        }
+
+        this.segments = unmodifiableList(segments);
+        this.extractFormat = extractFormat.toString();
+        this.postmanPath = template.replace("{", "{{").replace("}", "}}");
+        this.postmanSegments = postmanPath.substring(postmanPath.indexOf("/") + 1).split("/");
+        StringBuilder captureRegex = new StringBuilder("^").append(quote(literals.get(0)));
+        StringBuilder captureReplacement = new StringBuilder();
+
+        for (int i = 0; i < parameterNames.size(); i++) {
+            captureRegex.append(VALUE_CAPTURE).append(quote(literals.get(i + 1)));
+            captureReplacement.append(i > 0 ? VALUE_SEPARATOR : "").append("$").append(i + 1);
+        }
+
+        this.captureRegex = captureRegex.append("$").toString();
+        this.captureReplacement = captureReplacement.append(VALUE_SEPARATOR).append(LIST_TERMINATOR).toString();
+    }
+
+    private static String quote(String literal) {
+        StringBuilder builder = new StringBuilder();
+
+        for (char c : literal.toCharArray()) {
+            builder.append(REGEX_SPECIAL_CHARS.indexOf(c) != -1 || c == '/' ? "\\" + c : c);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * tokenises a path template in a single pass over its characters
+     *
+     * @param template
+     * @return the compiled template
+     */
+    static PathTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> parameterNames = new ArrayList<>();
+        int literalStart = 0;
+        int openIndex = template.indexOf('{');
+
+        while (openIndex != -1) {
+            int closeIndex = template.indexOf('}', openIndex);
+
+            if (closeIndex == -1) {
+                break;
+            }
+
+            literals.add(template.substring(literalStart, openIndex));
+            parameterNames.add(template.substring(openIndex + 1, closeIndex));
+            literalStart = closeIndex + 1;
+            openIndex = template.indexOf('{', literalStart);
+        }
+
+        literals.add(template.substring(literalStart));
+        return new PathTemplate(template, literals, parameterNames);
+    }
+
+    String getTemplate() {
+        return template;
+    }
+
+    boolean isTemplated() {
+        return !parameterNames.isEmpty();
+    }
+
+    List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * @return the non empty segments between the template's slashes, with parameters left as {name}
+     */
+    List<String> getSegments() {
+        return segments;
+    }
+
+    /**
+     * @return the template with each parameter replaced by its index, as read by an extract processor
+     */
+    String getExtractFormat() {
+        return extractFormat;
+    }
+
+    /**
+     * @return the template as a postman url path, with each parameter as a {{name}} variable
+     */
+    String getPostmanPath() {
+        return postmanPath;
+    }
+
+    /**
+     * @return the segments of the postman url path, as split by postman itself
+     */
+    String[] getPostmanSegments() {
+        return postmanSegments.clone();
+    }
+
+    /**
+     * @return an anchored regex matching request uris of the template, capturing the value of every parameter,
+     * reluctantly so that parameters sharing a segment split as they would by extract format
+     */
+    String getCaptureRegex() {
+        return captureRegex;
+    }
+
+    /**
+     * @return a replacement for the capture regex that lists every parameter's value, comma separated, ending
+     * with a terminator so that an empty last value is not dropped when the list is split
+     */
+    String getCaptureReplacement() {
+        return captureReplacement;
+    }
+
+    /**
+     * @param parameters the parameters declared for the path, to type the template's parameters with
+     * @return an anchored regex matching request uris of the template, with a capturing group per parameter
+     */
+    String regex(List<Parameter> parameters) {
+        StringBuilder builder = new StringBuilder("^").append(literals.get(0).replace("/", "\\/"));
+
+        for (int i = 0; i < parameterNames.size(); i++) {
+            Parameter parameter = declared(parameterNames.get(i), parameters);
+            builder.append("([").append(INTEGER.equals(type(parameter)) ? NUMERIC : ALPHA_NUMERIC).append("]").append(isRequired(parameter) ? "+" : "*").append(")");
+            builder.append(literals.get(i + 1).replace("/", "\\/"));
+        }
+
+        return builder.append("$").toString();
+    }
+
+    /**
+     * @param name the name of one of the template's parameters
+     * @param parameters the parameters declared for the path
+     * @return whether the parameter must be present; undeclared parameters are required
+     */
+    static boolean isRequired(String name, List<Parameter> parameters) {
+        return isRequired(declared(name, parameters));
+    }
+
+    private static boolean isRequired(Parameter parameter) {
+        return parameter == null || !Boolean.FALSE.equals(parameter.getRequired());
+    }
+
+    private static String type(Parameter parameter) {
+        return parameter != null ? parameter.getSchema().getType() : STRING;
+    }
+
+    private static Parameter declared(String name, List<Parameter> parameters) {
+        if (parameters != null) {
+            for (Parameter parameter : parameters) {
+                if (name.equals(parameter.getName()) && PATH.equals(parameter.getIn())) {
+                    return parameter;
+                }
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Logs how many operations have been generated at a fixed interval, from its own thread, so that generation
+ * threads only ever update counters and a large spec does not log a line per step.
+ */
+class ProgressReporter implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgressReporter.class);
+    private static final long INTERVAL_SECONDS = 2;
+
+    private final GenerationMetrics metrics;
+    private final int operations;
+    private final long start = System.currentTimeMillis();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param metrics the metrics operations are counted in
+     * @param operations the number of operations to generate
+     * @param quiet whether nothing is to be reported
+     */
+    ProgressReporter(GenerationMetrics metrics, int operations, boolean quiet) {
+        this.metrics = metrics;
+        this.operations = operations;
+
+        if (quiet) {
+            scheduler = null;
+        } else {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "generation-progress");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            scheduler.scheduleAtFixedRate(this::report, INTERVAL_SECONDS, INTERVAL_SECONDS, SECONDS);
+        }
+    }
+
+    private void report() {
+        LOGGER.info("generated {} of {} operation(s)", metrics.operationsCompleted(), operations);
+    }
+
+    /**
+     * stops reporting, logging a final summary
+     */
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            LOGGER.info("generated {} of {} operation(s) in {}ms", metrics.operationsCompleted(), operations, System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -5,11 +5,12 @@
 package uk.emarte.regurgitator.extensions.swagger;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.RGW;
-import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.addAttributeIfPresent;
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.writeAttributeIfPresent;
 
 class QueryParamProcessor implements ValueProcessor {
     @JsonProperty private final String kind = "query-param-processor";
@@ -20,9 +21,9 @@ class QueryParamProcessor implements ValueProcessor {
     }
 
     @Override
-    public Element toXml(Document document, Element parentElement) {
-        Element element = document.createElement(RGW + kind);
-        addAttributeIfPresent(element, "key", key);
-        return element;
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RGW + kind);
+        writeAttributeIfPresent(writer, "key", key);
+        writer.writeEndElement();
     }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps an xml stream writer to record everything written through it, as well as passing it on, so that the
+ * same fragment can be replayed into another writer later. Events are recorded as calls rather than text, so
+ * a replayed fragment is laid out for wherever in a document it is replayed.
+ */
+class RecordingXmlStreamWriter implements XMLStreamWriter {
+    private final XMLStreamWriter writer;
+    private final List<XmlAware> events = new ArrayList<>();
+
+    RecordingXmlStreamWriter(XMLStreamWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * @return the events recorded so far, replaying them in order into whichever writer they are given
+     */
+    XmlAware getRecording() {
+        List<XmlAware> recorded = new ArrayList<>(events);
+
+        return target -> {
+            for (XmlAware event : recorded) {
+                event.writeXml(target);
+            }
+        };
+    }
+
+    private void record(XmlAware event) throws XMLStreamException {
+        events.add(event);
+        event.writeXml(writer);
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        record(target -> target.writeStartElement(localName));
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        record(target -> target.writeStartElement(namespaceURI, localName));
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        record(target -> target.writeStartElement(prefix, localName, namespaceURI));
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        record(target -> target.writeEmptyElement(namespaceURI, localName));
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        record(target -> target.writeEmptyElement(prefix, localName, namespaceURI));
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        record(target -> target.writeEmptyElement(localName));
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        record(XMLStreamWriter::writeEndElement);
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        record(XMLStreamWriter::writeEndDocument);
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        writer.close();
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        writer.flush();
+    }
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        record(target -> target.writeAttribute(localName, value));
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+        record(target -> target.writeAttribute(prefix, namespaceURI, localName, value));
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        record(target -> target.writeAttribute(namespaceURI, localName, value));
+    }
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        record(target -> target.writeNamespace(prefix, namespaceURI));
+    }
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        record(target -> target.writeDefaultNamespace(namespaceURI));
+    }
+
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+        record(target -> target.writeComment(data));
+    }
+
+    @Override
+    public void writeProcessingInstruction(String instructionTarget) throws XMLStreamException {
+        record(target -> target.writeProcessingInstruction(instructionTarget));
+    }
+
+    @Override
+    public void writeProcessingInstruction(String instructionTarget, String data) throws XMLStreamException {
+        record(target -> target.writeProcessingInstruction(instructionTarget, data));
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        record(target -> target.writeCData(data));
+    }
+
+    @Override
+    public void writeDTD(String dtd) throws XMLStreamException {
+        record(target -> target.writeDTD(dtd));
+    }
+
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+        record(target -> target.writeEntityRef(name));
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        record(XMLStreamWriter::writeStartDocument);
+    }
+
+    @Override
+    public void writeStartDocument(String version) throws XMLStreamException {
+        record(target -> target.writeStartDocument(version));
+    }
+
+    @Override
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        record(target -> target.writeStartDocument(encoding, version));
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        record(target -> target.writeCharacters(text));
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        writeCharacters(new String(text, start, len));
+    }
+
+    @Override
+    public String getPrefix(String uri) throws XMLStreamException {
+        return writer.getPrefix(uri);
+    }
+
+    @Override
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        record(target -> target.setPrefix(prefix, uri));
+    }
+
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        record(target -> target.setDefaultNamespace(uri));
+    }
+
+    @Override
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+        record(target -> target.setNamespaceContext(context));
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return writer.getNamespaceContext();
+    }
+
+    @Override
+    public Object getProperty(String name) throws IllegalArgumentException {
+        return writer.getProperty(name);
+    }
+}
@@ -5,9 +5,9 @@
 package uk.emarte.regurgitator.extensions.swagger;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import java.util.List;
 
 import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.*;
@@ -21,18 +21,18 @@ class RegurgitatorConfiguration implements XmlAware {
     }
 
     @Override
-    public Element toXml(Document document, Element parentElement) {
-        Element element = document.createElement(RG + kind);
-        element.setAttributeNS(XMLNS_URL, "xmlns:rg", REGURG_CORE_URL);
-        element.setAttributeNS(XMLNS_URL, "xmlns:rge", REGURG_EXT_URL);
-        element.setAttributeNS(XMLNS_URL, "xmlns:rgw", REGURG_EXT_WEB_URL);
-        element.setAttributeNS(XMLNS_URL, "xmlns:xsi", XML_SCHEMA_URL);
-        element.setAttributeNS(XML_SCHEMA_URL, "xsi:schemaLocation", REGURG_CORE_URL + " regurgitatorCore.xsd " + REGURG_EXT_URL + " regurgitatorExtensions.xsd " + REGURG_EXT_WEB_URL + " regurgitatorExtensionsWeb.xsd");
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RG + kind);
+        writer.writeNamespace("rg", REGURG_CORE_URL);
+        writer.writeNamespace("rge", REGURG_EXT_URL);
+        writer.writeNamespace("rgw", REGURG_EXT_WEB_URL);
+        writer.writeNamespace("xsi", XML_SCHEMA_URL);
+        writer.writeAttribute("xsi:schemaLocation", REGURG_CORE_URL + " regurgitatorCore.xsd " + REGURG_EXT_URL + " regurgitatorExtensions.xsd " + REGURG_EXT_WEB_URL + " regurgitatorExtensionsWeb.xsd");
 
         for(Step step: steps) {
-            element.appendChild(step.toXml(document, element));
+            step.writeXml(writer);
         }
 
-        return element;
+        writer.writeEndElement();
     }
 }
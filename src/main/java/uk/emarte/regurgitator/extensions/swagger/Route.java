@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import uk.emarte.regurgitator.extensions.swagger.postman.Item;
+import uk.emarte.regurgitator.extensions.swagger.postman.Variable;
+
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+class Route {
+    private final String stepId;
+    private final Operation operation;
+    private final PathTemplate pathTemplate;
+    private final PathItem pathItem;
+    private final Method method;
+
+    private Step step;
+    private Condition pathCondition;
+    private Item postmanItem;
+    private List<Variable> postmanVariables = emptyList();
+
+    Route(String stepId, Operation operation, PathTemplate pathTemplate, PathItem pathItem, Method method) {
+        this.stepId = stepId;
+        this.operation = operation;
+        this.pathTemplate = pathTemplate;
+        this.pathItem = pathItem;
+        this.method = method;
+    }
+
+    String getStepId() {
+        return stepId;
+    }
+
+    Operation getOperation() {
+        return operation;
+    }
+
+    String getPath() {
+        return pathTemplate.getTemplate();
+    }
+
+    PathTemplate getPathTemplate() {
+        return pathTemplate;
+    }
+
+    PathItem getPathItem() {
+        return pathItem;
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    Step getStep() {
+        return step;
+    }
+
+    void setStep(Step step) {
+        this.step = step;
+    }
+
+    Condition getPathCondition() {
+        return pathCondition;
+    }
+
+    void setPathCondition(Condition pathCondition) {
+        this.pathCondition = pathCondition;
+    }
+
+    Item getPostmanItem() {
+        return postmanItem;
+    }
+
+    void setPostmanItem(Item postmanItem) {
+        this.postmanItem = postmanItem;
+    }
+
+    List<Variable> getPostmanVariables() {
+        return postmanVariables;
+    }
+
+    void setPostmanVariables(List<Variable> postmanVariables) {
+        this.postmanVariables = postmanVariables;
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+/**
+ * Builds the top level routing decision from a set of generated routes
+ */
+class RoutingDecisionBuilder {
+    private static final String REQUEST_METADATA_REQUEST_URI = "request-metadata:request-uri";
+    private static final String REQUEST_METADATA_METHOD = "request-metadata:method";
+    private static final String ROUTING_DECISION = "routing-decision", DEFAULT_ROUTE = "default-route", DEFAULT_SUFFIX = "-default", TEMPLATED_SUFFIX = "-templated";
+    private static final String UNMAPPED_OPERATION = "regurgitator : unmapped operation", PLAIN_TEXT = "text/plain";
+    private static final String WILDCARD = "*", WILDCARD_REGEX = "[^\\/]*", REGEX_SPECIAL_CHARS = "\\^$.|?*+()[]{}";
+
+    private final GenerationOptions.Routing routing;
+    private final boolean methodConditions;
+    private final boolean staticRoutesFirst;
+    private int decisionCount = 0;
+
+    private RoutingDecisionBuilder(GenerationOptions.Routing routing, boolean methodConditions, boolean staticRoutesFirst) {
+        this.routing = routing;
+        this.methodConditions = methodConditions;
+        this.staticRoutesFirst = staticRoutesFirst;
+    }
+
+    /**
+     * *
+     * @param routes
+     * @param options
+     * @return
+     */
+    static Decision buildRoutingDecision(List<Route> routes, GenerationOptions options) {
+        RoutingDecisionBuilder builder = new RoutingDecisionBuilder(options.getRouting(), !options.isPartitionByMethod(), options.isStaticRoutesFirst());
+        return options.isPartitionByMethod() ? builder.buildMethodDecision(routes) : builder.buildPathDecision(ROUTING_DECISION, DEFAULT_ROUTE, routes);
+    }
+
+    /**
+     * branches on the request method alone, handing off to one path decision per method, whose rules
+     * then only need to check the path
+     *
+     * @param routes
+     * @return
+     */
+    private Decision buildMethodDecision(List<Route> routes) {
+        Map<Method, List<Route>> routesByMethod = new EnumMap<>(Method.class);
+
+        for (Route route : routes) {
+            routesByMethod.computeIfAbsent(route.getMethod(), m -> new ArrayList<>()).add(route);
+        }
+
+        List<Step> steps = new ArrayList<>();
+        List<Rule> rules = new ArrayList<>();
+
+        for (Map.Entry<Method, List<Route>> entry : routesByMethod.entrySet()) {
+            String childId = ROUTING_DECISION + "-" + entry.getKey().name().toLowerCase();
+            steps.add(buildPathDecision(childId, childId + DEFAULT_SUFFIX, entry.getValue()));
+            rules.add(new Rule(childId, singletonList(buildMethodCondition(entry.getKey()))));
+        }
+
+        steps.add(buildDefaultStep(DEFAULT_ROUTE));
+        return new Decision(ROUTING_DECISION, steps, rules, DEFAULT_ROUTE);
+    }
+
+    private Decision buildPathDecision(String id, String defaultStepId, List<Route> routes) {
+        switch (routing) {
+            case trie: return buildTrieDecision(id, defaultStepId, routes, 0);
+            case flat:
+            default: return staticRoutesFirst ? buildStaticFirstDecision(id, defaultStepId, routes) : buildFlatDecision(id, defaultStepId, routes);
+        }
+    }
+
+    /**
+     * rules routes with literal paths, which only need equals conditions, in a decision of their own. that
+     * decision defaults to a second decision holding the templated routes, ordered most literal segments
+     * first, so a request for a literal path resolves without evaluating any regex
+     *
+     * @param id
+     * @param defaultStepId
+     * @param routes
+     * @return
+     */
+    private Decision buildStaticFirstDecision(String id, String defaultStepId, List<Route> routes) {
+        List<Route> staticRoutes = routes.stream().filter(r -> !isTemplated(r)).collect(Collectors.toList());
+        List<Route> templatedRoutes = routes.stream().filter(RoutingDecisionBuilder::isTemplated).sorted(Comparator.comparingLong(RoutingDecisionBuilder::literalSegmentCount).reversed()).collect(Collectors.toList());
+
+        if (staticRoutes.isEmpty() || templatedRoutes.isEmpty()) {
+            return buildFlatDecision(id, defaultStepId, staticRoutes.isEmpty() ? templatedRoutes : staticRoutes);
+        }
+
+        List<Step> steps = new ArrayList<>();
+        List<Rule> rules = new ArrayList<>();
+
+        for (Route route : staticRoutes) {
+            steps.add(route.getStep());
+            rules.add(buildRouteRule(route));
+        }
+
+        String templatedId = id + TEMPLATED_SUFFIX;
+        steps.add(buildFlatDecision(templatedId, defaultStepId, templatedRoutes));
+        return new Decision(id, steps, rules, templatedId);
+    }
+
+    /**
+     * one rule per route, every rule holding the route's full conditions
+     *
+     * @param id
+     * @param defaultStepId
+     * @param routes
+     * @return
+     */
+    private Decision buildFlatDecision(String id, String defaultStepId, List<Route> routes) {
+        List<Step> steps = new ArrayList<>();
+        List<Rule> rules = new ArrayList<>();
+
+        for (Route route : routes) {
+            steps.add(route.getStep());
+            rules.add(buildRouteRule(route));
+        }
+
+        steps.add(buildDefaultStep(defaultStepId));
+        return new Decision(id, steps, rules, defaultStepId);
+    }
+
+    /**
+     * nests decisions by path segment, so that a request only evaluates the rules under its own path prefix.
+     * routes whose path ends at this depth, or which are alone under their segment, get a full route rule;
+     * segments shared by several routes become a child decision guarded by a prefix condition. a templated
+     * segment can match any literal one at the same position, so where there are both, the routes are not
+     * split at that segment, and rules keep the spec order throughout, so a request routes as it would with
+     * flat routing.
+     *
+     * @param id
+     * @param defaultStepId
+     * @param routes
+     * @param depth
+     * @return
+     */
+    private Decision buildTrieDecision(String id, String defaultStepId, List<Route> routes, int depth) {
+        List<Step> steps = new ArrayList<>();
+        List<Rule> rules = new ArrayList<>();
+        List<Route> deeperRoutes = new ArrayList<>();
+
+        for (Route route : routes) {
+            if (segments(route).size() == depth) {
+                steps.add(route.getStep());
+                rules.add(buildRouteRule(route));
+            } else {
+                deeperRoutes.add(route);
+            }
+        }
+
+        Collection<List<Route>> groups;
+
+        if (deeperRoutes.stream().anyMatch(r -> WILDCARD.equals(segmentKey(segments(r).get(depth))))) {
+            if (rules.isEmpty()) {
+                return buildTrieDecision(id, defaultStepId, routes, commonDepth(routes, depth + 1));
+            }
+
+            groups = singletonList(deeperRoutes);
+        } else {
+            Map<String, List<Route>> literalGroups = new LinkedHashMap<>();
+
+            for (Route route : deeperRoutes) {
+                literalGroups.computeIfAbsent(segments(route).get(depth), k -> new ArrayList<>()).add(route);
+            }
+
+            groups = literalGroups.values();
+        }
+
+        for (List<Route> group : groups) {
+            if (group.size() == 1) {
+                steps.add(group.get(0).getStep());
+                rules.add(buildRouteRule(group.get(0)));
+            } else {
+                int groupDepth = commonDepth(group, depth + 1);
+                String childId = ROUTING_DECISION + "-" + (++decisionCount);
+                steps.add(buildTrieDecision(childId, childId + DEFAULT_SUFFIX, group, groupDepth));
+                rules.add(new Rule(childId, singletonList(new Condition(REQUEST_METADATA_REQUEST_URI, null, buildPrefixRegex(group, groupDepth), null))));
+            }
+        }
+
+        steps.add(buildDefaultStep(defaultStepId));
+        return new Decision(id, steps, rules, defaultStepId);
+    }
+
+    /**
+     * the depth to which every route in the group shares the same path segments, so that chains of
+     * single child segments collapse into one decision
+     *
+     * @param group
+     * @param depth
+     * @return
+     */
+    private static int commonDepth(List<Route> group, int depth) {
+        while (true) {
+            String key = null;
+
+            for (Route route : group) {
+                List<String> segments = segments(route);
+
+                if (segments.size() <= depth || (key != null && !key.equals(segmentKey(segments.get(depth))))) {
+                    return depth;
+                }
+
+                key = segmentKey(segments.get(depth));
+            }
+
+            depth++;
+        }
+    }
+
+    /**
+     * a regex matching the path prefix shared by every route in the group, to the given depth. a segment is
+     * only matched literally where every route has the same literal segment there
+     *
+     * @param group
+     * @param depth
+     * @return
+     */
+    private static String buildPrefixRegex(List<Route> group, int depth) {
+        StringBuilder builder = new StringBuilder("^");
+
+        for (int i = 0; i < depth; i++) {
+            builder.append("\\/");
+            String segment = segments(group.get(0)).get(i);
+            boolean literal = !WILDCARD.equals(segmentKey(segment));
+
+            for (Route route : group) {
+                literal &= segment.equals(segments(route).get(i));
+            }
+
+            if (!literal) {
+                builder.append(WILDCARD_REGEX);
+            } else {
+                for (char c : segment.toCharArray()) {
+                    builder.append(REGEX_SPECIAL_CHARS.indexOf(c) != -1 ? "\\" + c : c);
+                }
+            }
+        }
+
+        return builder.append("(\\/|$)").toString();
+    }
+
+    private static List<String> segments(Route route) {
+        return route.getPathTemplate().getSegments();
+    }
+
+    private static boolean isTemplated(Route route) {
+        return route.getPathTemplate().isTemplated();
+    }
+
+    private static long literalSegmentCount(Route route) {
+        return segments(route).stream().filter(s -> !WILDCARD.equals(segmentKey(s))).count();
+    }
+
+    private static String segmentKey(String segment) {
+        return segment.contains("{") ? WILDCARD : segment;
+    }
+
+    private Rule buildRouteRule(Route route) {
+        return new Rule(route.getStepId(), methodConditions ? asList(buildMethodCondition(route.getMethod()), route.getPathCondition()) : singletonList(route.getPathCondition()));
+    }
+
+    private static Condition buildMethodCondition(Method method) {
+        return new Condition(REQUEST_METADATA_METHOD, method.name(), null, null);
+    }
+
+    private static Step buildDefaultStep(String defaultStepId) {
+        return new CreateHttpResponse(defaultStepId, UNMAPPED_OPERATION, null, 500L, PLAIN_TEXT);
+    }
+}
@@ -5,13 +5,13 @@
 package uk.emarte.regurgitator.extensions.swagger;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import java.util.List;
 
 import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.RG;
-import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.addAttributeIfPresent;
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.writeAttributeIfPresent;
 
 class Rule implements XmlAware {
     @JsonProperty private final String step;
@@ -23,14 +23,14 @@ class Rule implements XmlAware {
     }
 
     @Override
-    public Element toXml(Document document, Element parentElement) {
-        Element element = document.createElement(RG + "rule");
-        addAttributeIfPresent(element, "step", step);
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RG + "rule");
+        writeAttributeIfPresent(writer, "step", step);
 
         for(Condition condition: conditions) {
-            element.appendChild(condition.toXml(document, element));
+            condition.writeXml(writer);
         }
 
-        return element;
+        writer.writeEndElement();
     }
 }
@@ -5,13 +5,13 @@
 package uk.emarte.regurgitator.extensions.swagger;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import java.util.List;
 
 import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.RG;
-import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.addAttributeIfPresent;
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.writeAttributeIfPresent;
 
 class Sequence implements Step {
     @JsonProperty private final String kind = "sequence";
@@ -24,14 +24,14 @@ class Sequence implements Step {
     }
 
     @Override
-    public Element toXml(Document document, Element parentElement) {
-        Element element = document.createElement(RG + kind);
-        addAttributeIfPresent(element, "id", id);
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RG + kind);
+        writeAttributeIfPresent(writer, "id", id);
 
         for(Step step: steps) {
-            element.appendChild(step.toXml(document, element));
+            step.writeXml(writer);
         }
 
-        return element;
+        writer.writeEndElement();
     }
 }
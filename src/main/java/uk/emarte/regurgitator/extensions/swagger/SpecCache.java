@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.Map;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Keeps parsed and resolved open api models on disk, so that generating again from an unchanged spec skips
+ * parsing, swagger 2 conversion and reference resolution entirely. Models are keyed by the hash of the open api
+ * file, and kept with the hashes of the local files it references through external $refs, which must also be
+ * unchanged for the model to be used. Only open api 3.0 models are cached, as those are the ones that round
+ * trip through json intact.
+ */
+class SpecCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpecCache.class);
+    private static final String FORMAT_VERSION = "1";
+    private static final String CACHE_FILE_EXTENSION = ".json";
+    private static final String REFERENCED_FILES = "referenced-files";
+    private static final String OPEN_API = "open-api";
+
+    private final File directory;
+
+    SpecCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * reads an open api model from the cache, parsing the open api file and caching the result when there is
+     * no cached model for its current contents
+     *
+     * @param swaggerFile
+     * @return the open api model, or null if the file could not be parsed
+     * @throws IOException if the open api file or a file it references cannot be read
+     */
+    OpenAPI read(File swaggerFile) throws IOException {
+        Path baseDirectory = swaggerFile.getAbsoluteFile().toPath().normalize().getParent();
+        File cacheFile = new File(directory, key(swaggerFile) + CACHE_FILE_EXTENSION);
+
+        if (cacheFile.isFile()) {
+            try {
+                JsonNode cached = Json.mapper().readTree(cacheFile);
+
+                if (isCurrent(cached.path(REFERENCED_FILES), baseDirectory)) {
+                    LOGGER.debug("### read parsed open api model from cache: {}", cacheFile.getName());
+                    return Json.mapper().treeToValue(cached.get(OPEN_API), OpenAPI.class);
+                }
+
+                LOGGER.debug("### cached open api model out of date, a referenced file has changed: {}", cacheFile.getName());
+            } catch (IOException ioe) {
+                LOGGER.debug("### ignoring unreadable cached open api model: {}", cacheFile.getName(), ioe);
+            }
+        }
+
+        OpenAPI openAPI = parse(swaggerFile);
+
+        if (openAPI != null && openAPI.getSpecVersion() == SpecVersion.V30) {
+            ObjectNode cached = Json.mapper().createObjectNode();
+            ObjectNode referencedFiles = cached.putObject(REFERENCED_FILES);
+
+            for (Path file : SpecFiles.referencedFiles(swaggerFile.toPath())) {
+                if (!file.toFile().equals(swaggerFile.getAbsoluteFile()) && file.toFile().isFile()) {
+                    referencedFiles.put(baseDirectory.relativize(file).toString(), hash(file));
+                }
+            }
+
+            cached.set(OPEN_API, Json.mapper().valueToTree(openAPI));
+            write(cached, cacheFile);
+        }
+
+        return openAPI;
+    }
+
+    /**
+     * @param swaggerFile
+     * @return the open api model, or null if the file could not be parsed
+     */
+    static OpenAPI parse(File swaggerFile) {
+        return new OpenAPIParser().readLocation(swaggerFile.getAbsolutePath(), null, null).getOpenAPI();
+    }
+
+    private static boolean isCurrent(JsonNode referencedFiles, Path baseDirectory) throws IOException {
+        for (Iterator<Map.Entry<String, JsonNode>> fields = referencedFiles.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            Path file = baseDirectory.resolve(field.getKey());
+
+            if (!file.toFile().isFile() || !hash(file).equals(field.getValue().asText())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void write(JsonNode cached, File cacheFile) throws IOException {
+        Files.createDirectories(directory.toPath());
+        Path tempFile = Files.createTempFile(directory.toPath(), cacheFile.getName(), ".tmp");
+
+        try { // written aside and moved into place, so concurrent runs never read a partly written model
+            Json.mapper().writeValue(tempFile.toFile(), cached);
+            Files.move(tempFile, cacheFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+            LOGGER.debug("### cached parsed open api model: {}", cacheFile.getName());
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * @param swaggerFile
+     * @return a hash of the contents of the open api file, and of the cache format and parser version, so that
+     * models cached by another version are never used
+     * @throws IOException if the file cannot be read
+     */
+    private static String key(File swaggerFile) throws IOException {
+        MessageDigest digest = OperationFingerprinter.newDigest();
+        digest.update((FORMAT_VERSION + "|" + OpenAPIParser.class.getPackage().getImplementationVersion() + "|").getBytes(StandardCharsets.UTF_8));
+        digest.update(Files.readAllBytes(swaggerFile.toPath()));
+        return OperationFingerprinter.hex(digest.digest());
+    }
+
+    private static String hash(Path file) throws IOException {
+        return OperationFingerprinter.hex(OperationFingerprinter.newDigest().digest(Files.readAllBytes(file)));
+    }
+}
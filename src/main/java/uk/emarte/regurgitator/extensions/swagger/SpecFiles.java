@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.core.util.Yaml;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The local files an open api file is made up of, being the file itself and those it reaches through
+ * external $refs, as watched for changes and as checked when using a cached model
+ */
+class SpecFiles {
+    private static final String REF = "$ref";
+
+    /**
+     * finds an open api file and every local file reachable from it through external $refs
+     *
+     * @param swaggerFile
+     * @return
+     */
+    static Set<Path> referencedFiles(Path swaggerFile) {
+        Set<Path> files = new LinkedHashSet<>();
+        Deque<Path> pending = new ArrayDeque<>();
+        pending.push(swaggerFile.toAbsolutePath().normalize());
+
+        while (!pending.isEmpty()) {
+            Path file = pending.pop();
+
+            if (!files.add(file) || !file.toFile().isFile()) {
+                continue;
+            }
+
+            Deque<JsonNode> nodes = new ArrayDeque<>();
+
+            try {
+                nodes.push(Yaml.mapper().readTree(file.toFile()));
+            } catch (IOException ioe) {
+                continue; // mid edit, so watch it for the next change
+            }
+
+            while (!nodes.isEmpty()) {
+                JsonNode node = nodes.pop();
+
+                if (node.isObject() && node.has(REF) && node.get(REF).isTextual()) {
+                    String reference = node.get(REF).asText();
+                    String location = reference.contains("#") ? reference.substring(0, reference.indexOf("#")) : reference;
+
+                    if (location.length() > 0 && !location.contains("://")) {
+                        pending.push(file.resolveSibling(location).normalize());
+                    }
+                }
+
+                for (Iterator<JsonNode> children = node.elements(); children.hasNext(); ) {
+                    nodes.push(children.next());
+                }
+            }
+        }
+
+        return files;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Keeps generated configuration up to date with an open api file, regenerating whenever the file or any
+ * file it references through an external $ref changes. Generation is incremental, so only the operations
+ * affected by a change are regenerated, and the process stays up between changes so each regeneration
+ * runs in an already warm jvm.
+ */
+class SpecWatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpecWatcher.class);
+    private static final long SETTLE_MILLIS = 100;
+
+    /**
+     * generates configuration, then regenerates it on every change until interrupted
+     *
+     * @param swaggerFile
+     * @param outputDirectory
+     * @param outputType
+     * @param options
+     * @throws GenerationException if the files cannot be watched
+     */
+    static void watch(File swaggerFile, File outputDirectory, String outputType, GenerationOptions options) throws GenerationException {
+        options.withIncremental(true);
+
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            Set<Path> watchedDirectories = new HashSet<>();
+            Set<Path> watchedFiles = generate(swaggerFile, outputDirectory, outputType, options);
+            register(watchedFiles, watchedDirectories, watchService);
+
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+
+                while (key != null) { // editors often save in several steps, so let events settle before regenerating
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= event.context() instanceof Path && watchedFiles.contains(((Path) key.watchable()).resolve((Path) event.context()));
+                    }
+
+                    key.reset();
+                    key = watchService.poll(SETTLE_MILLIS, MILLISECONDS);
+                }
+
+                if (changed) {
+                    watchedFiles = generate(swaggerFile, outputDirectory, outputType, options);
+                    register(watchedFiles, watchedDirectories, watchService);
+                }
+            }
+        } catch (IOException ioe) {
+            throw new GenerationException("Error watching swagger file", ioe);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Set<Path> generate(File swaggerFile, File outputDirectory, String outputType, GenerationOptions options) {
+        long start = System.currentTimeMillis();
+
+        try {
+            ConfigurationGenerator.generateConfiguration(swaggerFile, outputDirectory, outputType, options);
+            LOGGER.info("generated in {}ms, watching for changes", System.currentTimeMillis() - start);
+        } catch (GenerationException ge) {
+            LOGGER.error("{}{}, watching for changes", ge.getMessage(), ge.getCause() != null ? ": " + ge.getCause() : "");
+        }
+
+        return SpecFiles.referencedFiles(swaggerFile.toPath());
+    }
+
+    private static void register(Set<Path> files, Set<Path> watchedDirectories, WatchService watchService) throws IOException {
+        for (Path file : files) {
+            Path directory = file.getParent();
+
+            if (directory != null && watchedDirectories.add(directory)) {
+                directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+            }
+        }
+    }
+}
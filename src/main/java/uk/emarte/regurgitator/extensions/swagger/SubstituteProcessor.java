@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.RG;
+import static uk.emarte.regurgitator.extensions.swagger.XmlUtil.writeAttributeIfPresent;
+
+class SubstituteProcessor implements ValueProcessor {
+    @JsonProperty private final String kind = "substitute-processor";
+    @JsonProperty private final String token;
+    @JsonProperty private final String replacement;
+
+    SubstituteProcessor(String token, String replacement) {
+        this.token = token;
+        this.replacement = replacement;
+    }
+
+    @Override
+    public void writeXml(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(RG + kind);
+        writeAttributeIfPresent(writer, "token", token);
+        writeAttributeIfPresent(writer, "replacement", replacement);
+        writer.writeEndElement();
+    }
+}
@@ -4,9 +4,9 @@
  */
 package uk.emarte.regurgitator.extensions.swagger;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 public interface XmlAware {
-    Element toXml(Document document, Element parentElement);
+    void writeXml(XMLStreamWriter writer) throws XMLStreamException;
 }
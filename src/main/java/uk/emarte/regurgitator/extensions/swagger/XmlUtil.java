@@ -4,27 +4,21 @@
  */
 package uk.emarte.regurgitator.extensions.swagger;
 
-import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.media.ObjectSchema;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.media.XML;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import java.io.ByteArrayOutputStream;
-import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -34,46 +28,54 @@ public class XmlUtil {
     static final String REGURG_CORE_URL = "http://core.regurgitator.emarte.uk";
     static final String REGURG_EXT_URL = "http://extensions.regurgitator.emarte.uk";
     static final String REGURG_EXT_WEB_URL = "http://web.extensions.regurgitator.emarte.uk";
-    static final String XMLNS_URL = "http://www.w3.org/2000/xmlns/";
     static final String XML_SCHEMA_URL = "http://www.w3.org/2001/XMLSchema-instance";
 
     private static final String STRING = "string", INTEGER = "integer", DOUBLE = "double", FLOAT = "float", NUMBER = "number", OBJECT = "object", BOOLEAN = "boolean", INT_32 = "int32", INT_64 = "int64", ARRAY = "array";
     private static final String EX_STR = "abcdefgh", EX_NUM = "1";
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFERS = ThreadLocal.withInitial(ByteArrayOutputStream::new);
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
 
-    static void addAttributeIfPresent(Element element, String name, String value) {
+    static void writeAttributeIfPresent(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
         if(value != null) {
-            element.setAttribute(name, value);
+            writer.writeAttribute(name, value);
         }
     }
 
-    static void saveToXml(RegurgitatorConfiguration configuration, FileOutputStream fileOutputStream) throws ParserConfigurationException, TransformerException {
-        Document document = newDocument();
-        saveToXml(configuration.toXml(document, null), document, fileOutputStream);
-    }
-
-    static Document newDocument() throws ParserConfigurationException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setNamespaceAware(true);
-        return factory.newDocumentBuilder().newDocument();
-    }
+    static String saveToXml(XmlAware xmlAware, OutputStream outputStream) throws IOException, XMLStreamException {
+        ByteArrayOutputStream buffer = BUFFERS.get();
+        buffer.reset();
+        XMLStreamWriter writer = new IndentingXmlStreamWriter(OUTPUT_FACTORY.createXMLStreamWriter(buffer, "UTF-8"));
+        writer.writeStartDocument("UTF-8", "1.0");
+        xmlAware.writeXml(writer);
+        writer.writeEndDocument();
+        writer.close();
+
+        try (OutputStream target = outputStream) {
+            buffer.writeTo(target);
+        }
 
-    static String saveToXml(Element element, Document document, FileOutputStream fileOutputStream) throws TransformerException {
-        document.appendChild(element);
-        Transformer transformer = TransformerFactory.newInstance().newTransformer();
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        DOMSource domSource = new DOMSource(document);
-        transformer.transform(domSource, new StreamResult(fileOutputStream));
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        transformer.transform(domSource, new StreamResult(byteArrayOutputStream));
-        return byteArrayOutputStream.toString();
+        return buffer.toString("UTF-8");
     }
 
     @SuppressWarnings("rawtypes")
-    static Element buildXmlObject(String schemaName, Schema<?> schema, Document document, Components components, int level) {
+    static void writeXmlObject(String schemaName, Schema<?> schema, ComponentGraph graph, ExampleCache cache, Set<String> componentPath, XMLStreamWriter writer) throws XMLStreamException {
         if (schema.get$ref() != null) {
-            String $ref = schema.get$ref();
-            $ref = $ref.contains("/") ? $ref.substring($ref.lastIndexOf("/") + 1) : $ref;
-            schema = components.getSchemas().get($ref);
+            String componentName = ComponentGraph.componentName(schema.get$ref());
+            Schema<?> componentSchema = graph.schema(componentName);
+
+            if (!componentPath.add(componentName)) {
+                writeEmptyElement(schemaName, componentSchema, writer); // reference cycle closes here
+                return;
+            }
+
+            try {
+                cache.xml(componentName, schemaName, writer, componentWriter -> writeXmlObject(schemaName, componentSchema, graph, cache, componentPath, componentWriter));
+            } finally {
+                componentPath.remove(componentName);
+            }
+
+            return;
         }
 
         XML xml = schema.getXml();
@@ -86,90 +88,110 @@ public class XmlUtil {
                 throw new IllegalStateException("no element name defined");
             }
 
-            Element element = document.createElement(prefix != null && prefix.length() > 0 ? prefix + ":" + elementName : elementName);
+            writer.writeStartElement(prefix != null && prefix.length() > 0 ? prefix + ":" + elementName : elementName);
 
             if (prefix != null && namespace != null) {
-                element.setAttributeNS(XMLNS_URL, "xmlns:" + prefix, namespace);
+                writer.writeNamespace(prefix, namespace);
             }
 
             Map<String, Schema> properties = schema.getProperties() != null ? schema.getProperties() : ((ObjectSchema) schema.getAdditionalProperties()).getProperties();
 
+            for (String name : properties.keySet()) { // attributes have to be written before any child element
+                Schema<?> propertySchema = properties.get(name);
+
+                if (isAttribute(propertySchema)) {
+                    XML propertyXml = propertySchema.getXml();
+                    writer.writeAttribute(propertyXml.getName() != null ? propertyXml.getName() : name, getScalarValue(propertySchema));
+                }
+            }
+
             for (String name : properties.keySet()) {
                 Schema<?> propertySchema = properties.get(name);
-                String type = propertySchema.getType();
                 XML propertyXml = propertySchema.getXml();
                 String xmlName = propertyXml != null && propertyXml.getName() != null ? propertyXml.getName() : name;
 
-                if (ARRAY.equals(type)) {
+                if (ARRAY.equals(propertySchema.getType())) {
                     boolean wrapped = propertyXml != null && propertyXml.getWrapped() != null && propertyXml.getWrapped();
-                    Element elementToUse = element;
 
                     if (wrapped) {
-                        Element child = document.createElement(xmlName);
-                        element.appendChild(child);
-                        elementToUse = child;
+                        writer.writeStartElement(xmlName);
                     }
 
-                    io.swagger.v3.oas.models.media.XML itemsXml = propertySchema.getItems().getXml();
+                    XML itemsXml = propertySchema.getItems().getXml();
                     String itemName = itemsXml != null && itemsXml.getName() != null ? itemsXml.getName() : name;
-                    elementToUse.appendChild(buildXmlObject(itemName, propertySchema.getItems(), document, components, level + 1));
-                } else if (INTEGER.equals(type)) {
-                    String value;
-
-                    switch(propertySchema.getFormat()) {
-                        case INT_64: value = "" + getNumberObject(propertySchema, Long::parseLong, BigDecimal::longValue); break;
-                        case INT_32:
-                        default: value = "" + getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue);
-                    }
+                    writeXmlObject(itemName, propertySchema.getItems(), graph, cache, componentPath, writer);
 
-                    xmlChildElementOrAttribute(xmlName, value, propertyXml, document, element);
-                } else if (NUMBER.equals(type)) {
-                    String value;
-
-                    if(propertySchema.getFormat() != null) {
-                        switch (propertySchema.getFormat()) {
-                            case FLOAT: value = "" + getNumberObject(propertySchema, Float::parseFloat, BigDecimal::floatValue); break;
-                            case DOUBLE: value = "" + getNumberObject(propertySchema, Double::parseDouble, BigDecimal::doubleValue); break;
-                            default: value = "" + getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue);
-                        }
-                    } else {
-                        value = "" + getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue);
+                    if (wrapped) {
+                        writer.writeEndElement();
                     }
-
-                    xmlChildElementOrAttribute(xmlName, value, propertyXml, document, element);
-                } else if (OBJECT.equals(type)) {
-                    element.appendChild(buildXmlObject(xmlName, propertySchema, document, components, level + 1));
-                } else if (BOOLEAN.equals(type)) {
-                    String value = "" + Boolean.parseBoolean("" + (propertySchema.getExample() != null ? propertySchema.getExample() : false));
-                    xmlChildElementOrAttribute(xmlName, value, propertyXml, document, element);
-                } else if (propertySchema.get$ref() != null) {
-                    element.appendChild(buildXmlObject(xmlName, propertySchema, document, components, level + 1));
-                } else {
-                    xmlChildElementOrAttribute(xmlName, getStringValue(propertySchema), propertyXml, document, element);
+                } else if (isNested(propertySchema)) {
+                    writeXmlObject(xmlName, propertySchema, graph, cache, componentPath, writer);
+                } else if (!isAttribute(propertySchema)) {
+                    writer.writeStartElement(xmlName);
+                    writer.writeCharacters(getScalarValue(propertySchema));
+                    writer.writeEndElement();
                 }
             }
 
-            return element;
+            writer.writeEndElement();
         } else {
             elementName = elementName == null ? "xml" : elementName;
-            Element element = document.createElement(prefix != null && prefix.length() > 0 ? prefix + ":" + elementName : elementName);
+            writer.writeStartElement(prefix != null && prefix.length() > 0 ? prefix + ":" + elementName : elementName);
 
             if (STRING.equals(schema.getType()) || INTEGER.equals(schema.getType())) {
-                element.appendChild(document.createTextNode(INTEGER.equals(schema.getType()) ? "" + getNumberObject(schema, Integer::parseInt, BigDecimal::intValue) : getStringValue(schema)));
+                writer.writeCharacters(INTEGER.equals(schema.getType()) ? "" + getNumberObject(schema, Integer::parseInt, BigDecimal::intValue) : getStringValue(schema));
             }
 
-            return element;
+            writer.writeEndElement();
         }
     }
 
-    private static void xmlChildElementOrAttribute(String name, String value, XML propertyXml, Document document, Element element) {
-        if (propertyXml != null && propertyXml.getAttribute()) {
-            element.setAttribute(name, value);
-        } else {
-            Element child = document.createElement(name);
-            element.appendChild(child);
-            child.appendChild(document.createTextNode(value));
+    private static void writeEmptyElement(String schemaName, Schema<?> schema, XMLStreamWriter writer) throws XMLStreamException {
+        XML xml = schema.getXml();
+        String elementName = xml != null ? xml.getName() : schema.getName() != null ? schema.getName() : schemaName;
+        String prefix = xml != null ? xml.getPrefix() : null;
+        elementName = elementName == null ? "xml" : elementName;
+        writer.writeEmptyElement(prefix != null && prefix.length() > 0 ? prefix + ":" + elementName : elementName);
+    }
+
+    private static boolean isNested(Schema<?> propertySchema) {
+        String type = propertySchema.getType();
+        return OBJECT.equals(type) || (propertySchema.get$ref() != null && !INTEGER.equals(type) && !NUMBER.equals(type) && !BOOLEAN.equals(type));
+    }
+
+    private static boolean isAttribute(Schema<?> propertySchema) {
+        XML propertyXml = propertySchema.getXml();
+        return propertyXml != null && Boolean.TRUE.equals(propertyXml.getAttribute()) && !ARRAY.equals(propertySchema.getType()) && !isNested(propertySchema);
+    }
+
+    private static String getScalarValue(Schema<?> propertySchema) {
+        String type = propertySchema.getType();
+
+        if (INTEGER.equals(type)) {
+            if (propertySchema.getFormat() != null) {
+                switch(propertySchema.getFormat()) {
+                    case INT_64: return "" + getNumberObject(propertySchema, Long::parseLong, BigDecimal::longValue);
+                    case INT_32:
+                    default: return "" + getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue);
+                }
+            }
+
+            return "" + getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue);
+        } else if (NUMBER.equals(type)) {
+            if(propertySchema.getFormat() != null) {
+                switch (propertySchema.getFormat()) {
+                    case FLOAT: return "" + getNumberObject(propertySchema, Float::parseFloat, BigDecimal::floatValue);
+                    case DOUBLE: return "" + getNumberObject(propertySchema, Double::parseDouble, BigDecimal::doubleValue);
+                    default: return "" + getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue);
+                }
+            }
+
+            return "" + getNumberObject(propertySchema, Integer::parseInt, BigDecimal::intValue);
+        } else if (BOOLEAN.equals(type)) {
+            return "" + Boolean.parseBoolean("" + (propertySchema.getExample() != null ? propertySchema.getExample() : false));
         }
+
+        return getStringValue(propertySchema);
     }
 
     private static <TYPE> Object getNumberObject(Schema<?> propertySchema, Function<String, TYPE> objectFunction, Function<BigDecimal, TYPE> decimalFunction) {
@@ -195,7 +217,7 @@ public class XmlUtil {
 
         if(propertySchema.getFormat() != null) {
             switch(propertySchema.getFormat()) {
-                case "date-time": return new SimpleDateFormat("yyyy-MM-ddThh:mm:ss.vZ").format(new Date());
+                case "date-time": return new SimpleDateFormat("yyyy-MM-dd'T'hh:mm:ss").format(new Date());
                 case "uuid": return UUID.randomUUID().toString();
             }
         }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams generated files as entries of a single zip (or jar) file, so generating a large spec writes one
+ * file rather than tens of thousands. Each file is written as a whole entry once its stream is closed, so
+ * files from several generation threads never interleave.
+ */
+public class ZipOutputSink implements OutputSink {
+    private final ZipOutputStream zipOutputStream;
+    private final Set<String> directories = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param zipFile the zip file to create, replacing any existing file
+     * @throws IOException if the file cannot be created
+     */
+    public ZipOutputSink(Path zipFile) throws IOException {
+        this.zipOutputStream = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(zipFile)));
+    }
+
+    @Override
+    public boolean createDirectory(String path) throws IOException {
+        if (!directories.add(path)) {
+            return false;
+        }
+
+        writeEntry(path + "/", new byte[0], 0);
+        return true;
+    }
+
+    @Override
+    public OutputStream newOutputStream(String path) {
+        return new ByteArrayOutputStream() {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    writeEntry(path, buf, count);
+                }
+            }
+        };
+    }
+
+    private synchronized void writeEntry(String path, byte[] bytes, int length) throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(path));
+        zipOutputStream.write(bytes, 0, length);
+        zipOutputStream.closeEntry();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        zipOutputStream.close();
+    }
+}
@@ -19,10 +19,14 @@ public class Request {
     private final Body body;
 
     public Request(String name, String description, String url, Method method, Header[] header, Body body, List<QueryParam> queryParams) {
+        this(name, description, url.replaceAll("\\{", "{{").replaceAll("}", "}}"), null, method, header, body, queryParams);
+    }
+
+    public Request(String name, String description, String path, String[] pathSegments, Method method, Header[] header, Body body, List<QueryParam> queryParams) {
         this.name = name;
         this.description = description;
-        url = "{{" + BASE_URL_KEY + "}}" + url.replaceAll("\\{", "{{").replaceAll("}", "}}");
-        this.url = queryParams.size() > 0 ? new Url(url, queryParams) : url;
+        String url = "{{" + BASE_URL_KEY + "}}" + path;
+        this.url = queryParams.size() > 0 ? (pathSegments != null ? new Url(url, pathSegments, queryParams) : new Url(url, queryParams)) : url;
         this.method = method;
         this.header = header;
         this.body = body;
@@ -4,6 +4,9 @@
  */
 package uk.emarte.regurgitator.extensions.swagger.postman;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"body", "name", "code", "status"})
 public class Response {
     private final String body;
     private final StatusCode statusCode;
@@ -13,11 +13,14 @@ public class Url {
     private final List<QueryParam> query;
 
     public Url(String raw, List<QueryParam> queryParams) {
+        this(raw, raw.substring(raw.indexOf("/") + 1).split("/"), queryParams);
+    }
+
+    public Url(String raw, String[] path, List<QueryParam> queryParams) {
         this.raw = raw + "?" + formatQueryParams(queryParams);
         this.host = new String[]{raw.substring(0, raw.indexOf("/"))};
-        this.path = raw.substring(raw.indexOf("/") + 1).split("/");
+        this.path = path;
         this.query = queryParams;
-
     }
 
     private String formatQueryParams(List<QueryParam> queryParams) {
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.DateTimeSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.media.UUIDSchema;
+import org.junit.Test;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ComponentGraphTest {
+    @Test
+    public void testSelfReferenceIsRecursive() {
+        ComponentGraph graph = new ComponentGraph(new Components()
+                .addSchemas("Node", new ObjectSchema().addProperty("child", ref("Node")))
+                .addSchemas("Leaf", new ObjectSchema().addProperty("name", new StringSchema())));
+
+        assertTrue(graph.isRecursive("Node"));
+        assertFalse(graph.isRecursive("Leaf"));
+        assertEquals(1, graph.recursiveCount());
+    }
+
+    @Test
+    public void testMutualReferencesAreRecursive() {
+        ComponentGraph graph = new ComponentGraph(new Components()
+                .addSchemas("Owner", new ObjectSchema().addProperty("pets", new ArraySchema().items(ref("Pet"))))
+                .addSchemas("Pet", new ObjectSchema().addProperty("owner", ref("Owner")).addProperty("toy", ref("Toy")))
+                .addSchemas("Toy", new ObjectSchema().addProperty("maker", ref("Maker")))
+                .addSchemas("Maker", new ComposedSchema().addAllOfItem(ref("Toy")))
+                .addSchemas("Store", new ObjectSchema().addProperty("pet", ref("Pet"))));
+
+        assertTrue(graph.isRecursive("Owner"));
+        assertTrue(graph.isRecursive("Pet"));
+        assertTrue(graph.isRecursive("Toy"));
+        assertTrue(graph.isRecursive("Maker"));
+        assertFalse(graph.isRecursive("Store"));
+        assertEquals(4, graph.recursiveCount());
+    }
+
+    @Test
+    public void testAcyclicReferencesAreNotRecursive() {
+        ComponentGraph graph = new ComponentGraph(new Components()
+                .addSchemas("A", new ObjectSchema().addProperty("b", ref("B")).addProperty("c", ref("C")))
+                .addSchemas("B", new ObjectSchema().addProperty("c", ref("C")).addProperty("missing", ref("Missing")))
+                .addSchemas("C", new StringSchema()));
+
+        assertEquals(0, graph.recursiveCount());
+    }
+
+    @Test
+    public void testLongReferenceChainDoesNotExhaustTheStack() {
+        Components components = new Components();
+        int length = 100000;
+
+        for (int i = 0; i < length; i++) {
+            components.addSchemas("C" + i, new ObjectSchema().addProperty("next", ref("C" + ((i + 1) % length))));
+        }
+
+        ComponentGraph graph = new ComponentGraph(components);
+
+        assertEquals(length, graph.recursiveCount());
+    }
+
+    @Test
+    public void testGeneratedValuesAreFoundThroughReferences() {
+        ComponentGraph graph = new ComponentGraph(new Components()
+                .addSchemas("Order", new ObjectSchema().addProperty("placed", new DateTimeSchema()))
+                .addSchemas("Owner", new ObjectSchema().addProperty("orders", new ArraySchema().items(ref("Order"))))
+                .addSchemas("Store", new ComposedSchema().addAllOfItem(ref("Owner")))
+                .addSchemas("Pet", new ObjectSchema().addProperty("id", new UUIDSchema().example("b3b6c3a2-3f4e-4c8e-9a71-1d2f5a0e6b7c")).addProperty("status", new StringSchema()._enum(singletonList("sold")))));
+
+        assertTrue(graph.hasGeneratedValues("Order"));
+        assertTrue(graph.hasGeneratedValues("Owner"));
+        assertTrue(graph.hasGeneratedValues("Store"));
+        assertFalse(graph.hasGeneratedValues("Pet"));
+    }
+
+    private static Schema<?> ref(String componentName) {
+        return new Schema<>().$ref("#/components/schemas/" + componentName);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.emarte.regurgitator.core.ConfigurationFile;
+import uk.emarte.regurgitator.core.Message;
+import uk.emarte.regurgitator.core.Parameters;
+import uk.emarte.regurgitator.core.Regurgitator;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static java.util.Collections.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConfigurationGeneratorTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testParallelGenerationMatchesSequential() throws Exception {
+        for (String outputType : new String[]{"json", "xml"}) {
+            Map<String, String> sequential = generate(outputType, new GenerationOptions().withThreads(1));
+            Map<String, String> parallel = generate(outputType, new GenerationOptions().withThreads(4));
+
+            assertTrue(sequential.size() > 2);
+            assertEquals(sequential, parallel);
+        }
+    }
+
+    @Test
+    public void testSingleDocumentOnlyCreatesDirectoriesForExampleFiles() throws Exception {
+        Map<String, String> files = generate("json", new GenerationOptions().withSingleDocument(true));
+        List<String> configurationFiles = files.keySet().stream().filter(path -> path.endsWith("regurgitator-configuration.json")).collect(Collectors.toList());
+
+        assertEquals(1, configurationFiles.size());
+        assertTrue(files.containsKey("regurgitator-configuration.json"));
+
+        File zipFile = folder.newFile("single-document.zip");
+
+        try (OutputSink sink = new ZipOutputSink(zipFile.toPath())) {
+            ConfigurationGenerator.generateConfiguration(specFile(), sink, "json", new GenerationOptions().withSingleDocument(true));
+        }
+
+        try (ZipFile zip = new ZipFile(zipFile)) {
+            List<String> names = list(zip.entries()).stream().map(ZipEntry::getName).collect(Collectors.toList());
+            List<String> directories = names.stream().filter(name -> name.endsWith("/")).collect(Collectors.toList());
+
+            assertFalse(directories.isEmpty());
+            assertFalse(directories.stream().anyMatch(directory -> directory.startsWith("DELETE")));
+
+            for (String directory : directories) {
+                assertTrue(directory, names.stream().anyMatch(name -> name.startsWith(directory) && !name.equals(directory)));
+            }
+        }
+    }
+
+    @Test
+    public void testResponseBodiesUnderTheInlineThresholdAreInlined() throws Exception {
+        File spec = folder.newFile("greeting.yaml");
+        Files.write(spec.toPath(), ("openapi: 3.0.1\n"
+                + "info: {title: greeting, version: \"1\"}\n"
+                + "paths:\n"
+                + "  /greeting:\n"
+                + "    get:\n"
+                + "      responses:\n"
+                + "        '200':\n"
+                + "          description: ok\n"
+                + "          content:\n"
+                + "            application/json:\n"
+                + "              example: hello\n").getBytes(StandardCharsets.UTF_8));
+        String responseFile = "GET-greeting/GET-greeting-200.json";
+
+        Map<String, String> saved = generate(spec, "json", new GenerationOptions().withSingleDocument(true).withInlineThreshold("hello".length()));
+        assertEquals("hello", saved.get(responseFile));
+
+        Map<String, String> inlined = generate(spec, "json", new GenerationOptions().withSingleDocument(true).withInlineThreshold("hello".length() + 1));
+        assertFalse(inlined.containsKey(responseFile));
+        assertTrue(inlined.get("regurgitator-configuration.json").contains("\"value\" : \"hello\""));
+
+        File zipFile = folder.newFile("inlined.zip");
+
+        try (OutputSink sink = new ZipOutputSink(zipFile.toPath())) {
+            ConfigurationGenerator.generateConfiguration(spec, sink, "json", new GenerationOptions().withSingleDocument(true).withInlineThreshold("hello".length() + 1));
+        }
+
+        try (ZipFile zip = new ZipFile(zipFile)) {
+            assertFalse(list(zip.entries()).stream().anyMatch(ZipEntry::isDirectory));
+        }
+    }
+
+    @Test
+    public void testIdenticalBodiesShareOneAsset() throws Exception {
+        File spec = folder.newFile("greetings.yaml");
+        Files.write(spec.toPath(), ("openapi: 3.0.1\n"
+                + "info: {title: greetings, version: \"1\"}\n"
+                + "paths:\n"
+                + "  /greeting:\n"
+                + "    get:\n"
+                + "      responses:\n"
+                + "        '200': {description: ok, content: {application/json: {example: hello}}}\n"
+                + "  /salutation:\n"
+                + "    get:\n"
+                + "      responses:\n"
+                + "        '200': {description: ok, content: {application/json: {example: hello}}}\n").getBytes(StandardCharsets.UTF_8));
+
+        Map<String, String> files = generate(spec, "json", new GenerationOptions().withSharedAssets(true));
+        List<String> assets = files.keySet().stream().filter(path -> path.startsWith("assets/")).collect(Collectors.toList());
+
+        assertEquals(1, assets.size());
+        assertEquals("hello", files.get(assets.get(0)));
+        assertTrue(files.get("GET-greeting/regurgitator-configuration.json").contains("classpath:/" + assets.get(0)));
+        assertTrue(files.get("GET-salutation/regurgitator-configuration.json").contains("classpath:/" + assets.get(0)));
+        assertFalse(files.keySet().stream().anyMatch(path -> path.endsWith("-200.json")));
+    }
+
+    @Test
+    public void testLowercaseRangeResponseCodeIsInThePostmanCollection() throws Exception {
+        File spec = folder.newFile("failure.yaml");
+        Files.write(spec.toPath(), ("openapi: 3.0.1\n"
+                + "info: {title: failure, version: \"1\"}\n"
+                + "paths:\n"
+                + "  /failure:\n"
+                + "    get:\n"
+                + "      responses:\n"
+                + "        '5xx': {description: failed, content: {application/json: {example: failed}}}\n").getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(generate(spec, "json", new GenerationOptions()).get("postman.json").contains("500 Response"));
+    }
+
+    @Test
+    public void testSinglePassPathExtractsAsExtractProcessor() throws Exception {
+        String[][] templatesAndUris = {
+                {"/owners/{ownerId}/pets/{petId}", "/owners/12/pets/rex", "/owners/12/pets/", "/owners/a%2Fb/pets/c-d"},
+                {"/files/{name}.{extension}/{page}", "/files/report.tar.gz/3", "/files/report.txt/"},
+                {"/stores/{storeId}.json/{version}", "/stores/7.json/2"}
+        };
+
+        for (String[] templateAndUris : templatesAndUris) {
+            PathTemplate template = PathTemplate.compile(templateAndUris[0]);
+
+            for (int i = 1; i < templateAndUris.length; i++) {
+                String uri = templateAndUris[i];
+                assertEquals(uri, pathParameters(template, false, uri), pathParameters(template, true, uri));
+            }
+        }
+    }
+
+    @Test
+    public void testSinglePassPathSplitsValuesHoldingCommas() throws Exception {
+        PathTemplate template = PathTemplate.compile("/owners/{ownerId}/pets/{petId}");
+
+        assertEquals("[a,b, rex]", pathParameters(template, false, "/owners/a,b/pets/rex"));
+        assertEquals("[a, b]", pathParameters(template, true, "/owners/a,b/pets/rex"));
+    }
+
+    /**
+     * runs the generated path parameter steps through regurgitator against a request uri
+     *
+     * @return the value of every path parameter, in template order
+     */
+    private String pathParameters(PathTemplate template, boolean singlePass, String uri) throws Exception {
+        File file = File.createTempFile("regurgitator-configuration", ".json", folder.getRoot());
+        MAPPER.writeValue(file, new Sequence("path-parameters", ConfigurationGenerator.buildCreateParameterStepsForPath(template, null, singlePass)));
+
+        Message message = new Message((m, v) -> {});
+        message.getContext("request-metadata").setValue("request-uri", uri);
+        new Regurgitator("test", ConfigurationFile.loadFile(file.getAbsolutePath())).processMessage(message);
+
+        Parameters parameters = message.getParameters();
+        List<Object> values = new ArrayList<>();
+
+        for (String name : template.getParameterNames()) {
+            values.add(parameters.getValue(name));
+        }
+
+        return values.toString();
+    }
+
+    static Map<String, String> generate(String outputType, GenerationOptions options) throws Exception {
+        return generate(specFile(), outputType, options);
+    }
+
+    static Map<String, String> generate(File spec, String outputType, GenerationOptions options) throws Exception {
+        MemoryOutputSink sink = new MemoryOutputSink();
+        ConfigurationGenerator.generateConfiguration(spec, sink, outputType, options);
+        return contents(sink.getFiles());
+    }
+
+    static File specFile() throws Exception {
+        return new File(ConfigurationGeneratorTest.class.getResource("/pets.yaml").toURI());
+    }
+
+    static Map<String, String> contents(Map<String, byte[]> files) {
+        Map<String, String> contents = new TreeMap<>();
+        files.forEach((path, bytes) -> contents.put(path, new String(bytes, StandardCharsets.UTF_8)));
+        return contents;
+    }
+}
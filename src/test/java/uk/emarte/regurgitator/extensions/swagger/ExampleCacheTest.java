@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.media.UUIDSchema;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class ExampleCacheTest {
+    private static final ComponentGraph GRAPH = new ComponentGraph(new Components()
+            .addSchemas("Pet", new ObjectSchema().addProperty("name", new StringSchema()))
+            .addSchemas("Order", new ObjectSchema().addProperty("id", new UUIDSchema()))
+            .addSchemas("Owner", new ObjectSchema().addProperty("pet", ref("Pet")).addProperty("order", ref("Order"))));
+
+    @Test
+    public void testComponentIsRenderedOnce() {
+        ExampleCache cache = new ExampleCache(GRAPH);
+
+        assertSame(render("Pet", cache), render("Pet", cache));
+        assertEquals(1, cache.getRenders());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testComponentWithGeneratedValueIsRenderedEachTime() {
+        ExampleCache cache = new ExampleCache(GRAPH);
+        Map<?, ?> owner = (Map<?, ?>) render("Owner", cache);
+        Map<?, ?> otherOwner = (Map<?, ?>) render("Owner", cache);
+
+        assertSame(owner.get("pet"), otherOwner.get("pet"));
+        assertNotEquals(((Map<?, ?>) owner.get("order")).get("id"), ((Map<?, ?>) otherOwner.get("order")).get("id"));
+    }
+
+    private static Object render(String componentName, ExampleCache cache) {
+        return JsonUtil.buildJsonObject(ref(componentName), GRAPH, cache, new HashSet<>());
+    }
+
+    private static Schema<?> ref(String componentName) {
+        return new Schema<>().$ref("#/components/schemas/" + componentName);
+    }
+}
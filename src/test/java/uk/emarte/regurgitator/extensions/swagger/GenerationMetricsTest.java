@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.parser.OpenAPIParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GenerationMetricsTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReportHasEveryPhaseAndCountsEveryOperation() throws Exception {
+        MemoryOutputSink sink = new MemoryOutputSink();
+        ConfigurationGenerator.generateConfiguration(ConfigurationGeneratorTest.specFile(), sink, "json", new GenerationOptions().withMetricsReport(true));
+        Map<String, byte[]> files = sink.getFiles();
+        JsonNode report = MAPPER.readTree(files.get(GenerationMetrics.REPORT_FILE_NAME));
+
+        for (String phase : asList("parse", "index", "operations", "routing", "postman")) {
+            assertTrue(phase, report.get("phases").has(phase + "-millis"));
+        }
+
+        assertEquals(operationCount(), report.get("operations").get("generated").asInt());
+        assertEquals(0, report.get("operations").get("skipped").asInt());
+        assertEquals(files.size() - 1, report.get("output").get("files-written").asInt());
+        assertTrue(report.get("rendering").get("bodies-rendered").asInt() > 0);
+    }
+
+    @Test
+    public void testUnchangedOperationsAreCountedAsSkipped() throws Exception {
+        File outputDirectory = folder.newFolder();
+        GenerationOptions options = new GenerationOptions().withIncremental(true).withMetricsReport(true);
+        ConfigurationGenerator.generateConfiguration(ConfigurationGeneratorTest.specFile(), outputDirectory, "json", options);
+        ConfigurationGenerator.generateConfiguration(ConfigurationGeneratorTest.specFile(), outputDirectory, "json", options);
+        JsonNode report = MAPPER.readTree(new File(outputDirectory, GenerationMetrics.REPORT_FILE_NAME));
+
+        assertEquals(0, report.get("operations").get("generated").asInt());
+        assertEquals(operationCount(), report.get("operations").get("skipped").asInt());
+    }
+
+    private static int operationCount() throws Exception {
+        return new OpenAPIParser().readLocation(ConfigurationGeneratorTest.specFile().getAbsolutePath(), null, null).getOpenAPI().getPaths().values().stream().mapToInt(pathItem -> pathItem.readOperations().size()).sum();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.BooleanSchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.NumberSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+public class JsonUtilTest {
+    private static final ComponentGraph GRAPH = new ComponentGraph(new Components()
+            .addSchemas("Pet", new ObjectSchema()
+                    .addProperty("id", new IntegerSchema().format("int64"))
+                    .addProperty("age", new IntegerSchema().minimum(new BigDecimal(3)))
+                    .addProperty("weight", new NumberSchema().format("double"))
+                    .addProperty("price", new NumberSchema().format("float").example(9.5))
+                    .addProperty("name", new StringSchema().example("rex"))
+                    .addProperty("status", new StringSchema()._enum(asList("available", "sold")))
+                    .addProperty("vaccinated", new BooleanSchema())
+                    .addProperty("tags", new ArraySchema().items(new StringSchema()))
+                    .addProperty("owner", ref("Owner")))
+            .addSchemas("Owner", new ObjectSchema()
+                    .addProperty("name", new StringSchema())
+                    .addProperty("address", new ObjectSchema().addProperty("line1", new StringSchema())))
+            .addSchemas("Node", new ObjectSchema().addProperty("value", new StringSchema()).addProperty("next", ref("Node")).addProperty("other", ref("Other")))
+            .addSchemas("Other", new ObjectSchema().addProperty("back", ref("Node")).addProperty("nodes", new ArraySchema().items(ref("Node"))))
+            .addSchemas("Tree", new ComposedSchema().addAllOfItem(ref("Node"))));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testStreamedExampleMatchesBuiltExample() throws Exception {
+        assertStreamedMatchesBuilt(ref("Pet"));
+        assertStreamedMatchesBuilt(new ArraySchema().items(ref("Pet")));
+        assertStreamedMatchesBuilt(new StringSchema());
+    }
+
+    @Test
+    public void testStreamedExampleOfRecursiveComponentsMatchesBuiltExample() throws Exception {
+        assertStreamedMatchesBuilt(ref("Node"));
+        assertStreamedMatchesBuilt(ref("Other"));
+        assertStreamedMatchesBuilt(ref("Tree"));
+        assertStreamedMatchesBuilt(new ArraySchema().items(ref("Node")));
+    }
+
+    private void assertStreamedMatchesBuilt(Schema<?> schema) throws Exception {
+        File builtFile = folder.newFile();
+        File streamedFile = folder.newFile();
+        String built = JsonUtil.saveToJson(JsonUtil.buildJsonObject(schema, GRAPH, new ExampleCache(GRAPH), new HashSet<>()), new FileOutputStream(builtFile));
+        JsonUtil.streamToJson(schema, GRAPH, new FileOutputStream(streamedFile));
+
+        assertEquals(built, new String(Files.readAllBytes(builtFile.toPath()), StandardCharsets.UTF_8));
+        assertEquals(built, new String(Files.readAllBytes(streamedFile.toPath()), StandardCharsets.UTF_8));
+    }
+
+    private static Schema<?> ref(String componentName) {
+        return new Schema<>().$ref("#/components/schemas/" + componentName);
+    }
+}
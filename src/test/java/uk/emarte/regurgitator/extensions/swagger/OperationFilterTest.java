@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.Operation;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OperationFilterTest {
+    private static final Operation OPERATION = new Operation().operationId("getPet").tags(asList("pets", "public"));
+
+    @Test
+    public void testSingleStarMatchesWithinOneSegment() {
+        OperationFilter filter = include("path:/pets/*");
+
+        assertTrue(selects(filter, "/pets/{petId}"));
+        assertTrue(selects(filter, "/pets/"));
+        assertFalse(selects(filter, "/pets"));
+        assertFalse(selects(filter, "/pets/{petId}/toys"));
+        assertFalse(selects(filter, "/owners/{ownerId}/pets/{petId}"));
+    }
+
+    @Test
+    public void testDoubleStarMatchesAcrossSegments() {
+        OperationFilter filter = include("path:/pets/**");
+
+        assertTrue(selects(filter, "/pets/{petId}"));
+        assertTrue(selects(filter, "/pets/{petId}/toys"));
+        assertTrue(selects(filter, "/pets/{petId}/toys/{toyId}"));
+        assertFalse(selects(filter, "/pets"));
+        assertFalse(selects(filter, "/owners/{ownerId}/pets/{petId}"));
+    }
+
+    @Test
+    public void testStarsWithinAndAcrossSegmentsCombine() {
+        OperationFilter filter = include("path:/*/{petId}/**");
+
+        assertTrue(selects(filter, "/pets/{petId}/toys"));
+        assertTrue(selects(filter, "/pets/{petId}/toys/{toyId}"));
+        assertFalse(selects(filter, "/owners/{ownerId}/pets/{petId}/toys"));
+        assertTrue(selects(include("path:**/toys"), "/owners/{ownerId}/pets/{petId}/toys"));
+        assertFalse(selects(include("path:*/toys"), "/owners/{ownerId}/pets/{petId}/toys"));
+    }
+
+    @Test
+    public void testGlobCharactersAreTheOnlySpecialOnes() {
+        assertTrue(selects(include("path:/stores/*.json"), "/stores/{storeId}.json"));
+        assertFalse(selects(include("path:/stores/*.json"), "/stores/{storeId}xjson"));
+        assertTrue(selects(include("path:/pets/?"), "/pets/1"));
+        assertFalse(selects(include("path:/pets/?"), "/pets/12"));
+    }
+
+    @Test
+    public void testExcludeWinsOverInclude() {
+        OperationFilter filter = include("path:/pets/**");
+        filter.exclude("path:/pets/*/toys/**");
+
+        assertTrue(selects(filter, "/pets/{petId}"));
+        assertTrue(selects(filter, "/pets/{petId}/toys"));
+        assertFalse(selects(filter, "/pets/{petId}/toys/{toyId}"));
+    }
+
+    private static OperationFilter include(String selector) {
+        OperationFilter filter = new OperationFilter();
+        filter.include(selector);
+        return filter;
+    }
+
+    private static boolean selects(OperationFilter filter, String path) {
+        return filter.selects(path, Method.GET, OPERATION);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class OperationFingerprinterTest {
+    private static final String SIGNATURE = new GenerationOptions().outputSignature();
+
+    @Test
+    public void testFingerprintChangesWithTransitivelyReferencedComponent() {
+        Route route = route("Owner");
+        String fingerprint = new OperationFingerprinter(components("toy"), SIGNATURE).fingerprint(route);
+
+        assertEquals(fingerprint, new OperationFingerprinter(components("toy"), SIGNATURE).fingerprint(route));
+        assertNotEquals(fingerprint, new OperationFingerprinter(components("ball"), SIGNATURE).fingerprint(route));
+    }
+
+    @Test
+    public void testFingerprintIgnoresUnreferencedComponents() {
+        Route route = route("Owner");
+        Components components = components("toy");
+        String fingerprint = new OperationFingerprinter(components, SIGNATURE).fingerprint(route);
+
+        components.addSchemas("Store", new ObjectSchema().addProperty("name", new StringSchema()));
+        components.getSchemas().get("Unused").addProperties("extra", new StringSchema());
+
+        assertEquals(fingerprint, new OperationFingerprinter(components, SIGNATURE).fingerprint(route));
+    }
+
+    @Test
+    public void testFingerprintChangesWithOutputSignature() {
+        Route route = route("Owner");
+        Components components = components("toy");
+
+        assertNotEquals(new OperationFingerprinter(components, SIGNATURE).fingerprint(route), new OperationFingerprinter(components, new GenerationOptions().withStreamJsonExamples(true).outputSignature()).fingerprint(route));
+    }
+
+    @Test
+    public void testFingerprintTerminatesOnReferenceCycles() {
+        Components components = components("toy");
+        components.getSchemas().get("Toy").addProperties("owner", ref("Owner"));
+        OperationFingerprinter fingerprinter = new OperationFingerprinter(components, SIGNATURE);
+
+        assertEquals(fingerprinter.fingerprint(route("Owner")), fingerprinter.fingerprint(route("Owner")));
+    }
+
+    /**
+     * Owner references Pet, which references Toy, whose only property is named as given
+     */
+    private static Components components(String toyProperty) {
+        return new Components()
+                .addSchemas("Owner", new ObjectSchema().addProperty("pet", ref("Pet")))
+                .addSchemas("Pet", new ObjectSchema().addProperty("toy", ref("Toy")))
+                .addSchemas("Toy", new ObjectSchema().addProperty(toyProperty, new StringSchema()))
+                .addSchemas("Unused", new ObjectSchema().addProperty("name", new StringSchema()));
+    }
+
+    private static Route route(String componentName) {
+        Content content = new Content().addMediaType("application/json", new MediaType().schema(ref(componentName)));
+        Operation operation = new Operation().operationId("getOwner").responses(new ApiResponses().addApiResponse("200", new ApiResponse().content(content)));
+        return new Route("GET-owners", operation, PathTemplate.compile("/owners"), new PathItem(), Method.GET);
+    }
+
+    private static Schema<?> ref(String componentName) {
+        return new Schema<>().$ref("#/components/schemas/" + componentName);
+    }
+}
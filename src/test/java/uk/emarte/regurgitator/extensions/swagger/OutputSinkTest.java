@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static java.util.Collections.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OutputSinkTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEverySinkReceivesTheSameFiles() throws Exception {
+        for (String outputType : new String[]{"json", "xml"}) {
+            MemoryOutputSink memorySink = new MemoryOutputSink();
+            generate(outputType, memorySink);
+            Map<String, String> files = ConfigurationGeneratorTest.contents(memorySink.getFiles());
+
+            File directory = folder.newFolder();
+            generate(outputType, new DirectoryOutputSink(directory));
+
+            File zipFile = new File(folder.getRoot(), outputType + ".zip");
+            generate(outputType, new ZipOutputSink(zipFile.toPath()));
+
+            assertTrue(files.containsKey("postman.json"));
+            assertTrue(files.containsKey("regurgitator-configuration." + outputType));
+            assertEquals(files, readDirectory(directory.toPath()));
+            assertEquals(files, readZip(zipFile));
+        }
+    }
+
+    private static void generate(String outputType, OutputSink sink) throws Exception {
+        try (OutputSink outputSink = sink) {
+            ConfigurationGenerator.generateConfiguration(ConfigurationGeneratorTest.specFile(), outputSink, outputType, new GenerationOptions());
+        }
+    }
+
+    private static Map<String, String> readDirectory(Path directory) throws IOException {
+        Map<String, byte[]> files = new TreeMap<>();
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                files.put(directory.relativize(path).toString().replace(File.separatorChar, '/'), Files.readAllBytes(path));
+            }
+        }
+
+        return ConfigurationGeneratorTest.contents(files);
+    }
+
+    private static Map<String, String> readZip(File zipFile) throws IOException {
+        Map<String, byte[]> files = new TreeMap<>();
+
+        try (ZipFile zip = new ZipFile(zipFile)) {
+            for (ZipEntry entry : list(zip.entries())) {
+                if (!entry.isDirectory()) {
+                    byte[] bytes = new byte[(int) entry.getSize()];
+                    new DataInputStream(zip.getInputStream(entry)).readFully(bytes);
+                    files.put(entry.getName(), bytes);
+                }
+            }
+        }
+
+        return ConfigurationGeneratorTest.contents(files);
+    }
+}
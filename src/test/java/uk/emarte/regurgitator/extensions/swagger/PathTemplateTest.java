@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PathTemplateTest {
+    @Test
+    public void testCaptureRegexAndReplacement() {
+        PathTemplate template = PathTemplate.compile("/owners/{ownerId}/pets/{petId}");
+
+        assertEquals("^\\/owners\\/([^\\/]*?)\\/pets\\/([^\\/]*?)$", template.getCaptureRegex());
+        assertEquals("$1,$2,-", template.getCaptureReplacement());
+        assertEquals("12,rex,-", capture(template, "/owners/12/pets/rex"));
+    }
+
+    @Test
+    public void testCaptureKeepsEmptyValues() {
+        PathTemplate template = PathTemplate.compile("/owners/{ownerId}/pets/{petId}");
+
+        assertEquals(",,-", capture(template, "/owners//pets/"));
+        assertEquals("12,,-", capture(template, "/owners/12/pets/"));
+    }
+
+    @Test
+    public void testCaptureQuotesRegexCharactersInLiterals() {
+        PathTemplate template = PathTemplate.compile("/stores/{storeId}.json/{version}");
+
+        assertEquals("^\\/stores\\/([^\\/]*?)\\.json\\/([^\\/]*?)$", template.getCaptureRegex());
+        assertEquals("7,2,-", capture(template, "/stores/7.json/2"));
+        assertEquals("/stores/7xjson/2", capture(template, "/stores/7xjson/2"));
+    }
+
+    @Test
+    public void testCaptureSplitsParamsSharingASegmentReluctantly() {
+        PathTemplate template = PathTemplate.compile("/files/{name}.{extension}/{page}");
+
+        assertEquals("$1,$2,$3,-", template.getCaptureReplacement());
+        assertEquals("report,tar.gz,3,-", capture(template, "/files/report.tar.gz/3"));
+    }
+
+    @Test
+    public void testCaptureLeavesUriOfAnotherTemplateUnchanged() {
+        PathTemplate template = PathTemplate.compile("/owners/{ownerId}/pets/{petId}");
+
+        assertEquals("/owners/12/pets/rex/toys", capture(template, "/owners/12/pets/rex/toys"));
+        assertEquals("/owners/12", capture(template, "/owners/12"));
+    }
+
+    private static String capture(PathTemplate template, String uri) {
+        return uri.replaceAll(template.getCaptureRegex(), template.getCaptureReplacement());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static uk.emarte.regurgitator.extensions.swagger.GenerationOptions.Routing.flat;
+import static uk.emarte.regurgitator.extensions.swagger.GenerationOptions.Routing.trie;
+
+public class RoutingDecisionBuilderTest {
+    private static final String UNMAPPED = "unmapped";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void testTrieFallsBackToTemplatedSiblingOfLiteralSegment() throws Exception {
+        List<Route> routes = routes("GET /pets/mine/a", "GET /pets/mine/b", "GET /pets/{id}/toys", "GET /pets/{id}/food");
+        JsonNode trieDecision = decision(routes, new GenerationOptions().withRouting(trie));
+
+        assertEquals("route-3", route(trieDecision, "GET", "/pets/mine/toys"));
+        assertEquals("route-1", route(trieDecision, "GET", "/pets/mine/a"));
+        assertEquals("route-4", route(trieDecision, "GET", "/pets/7/food"));
+        assertEquals(UNMAPPED, route(trieDecision, "GET", "/pets/mine/c"));
+    }
+
+    @Test
+    public void testTrieRoutesAsFlat() throws Exception {
+        List<Route> routes = routes("GET /pets", "POST /pets", "GET /pets/{petId}", "GET /pets/mine", "DELETE /pets/{petId}", "GET /pets/mine/toys",
+                "GET /pets/{petId}/toys", "GET /pets/{petId}/toys/{toyId}", "GET /pets/{petId}/toys/new", "GET /owners/{ownerId}", "GET /owners/{ownerId}/pets/{petId}",
+                "GET /owners/me/pets/{petId}", "GET /stores/{storeId}.json", "GET /stores/list");
+        String[] requests = {"GET /pets", "POST /pets", "PUT /pets", "GET /pets/1", "GET /pets/mine", "DELETE /pets/mine", "GET /pets/mine/toys", "GET /pets/1/toys",
+                "GET /pets/mine/toys/2", "GET /pets/1/toys/new", "GET /pets/mine/toys/new", "GET /owners/me", "GET /owners/me/pets/1", "GET /owners/1/pets/1",
+                "GET /stores/list", "GET /stores/list.json", "GET /stores/1.json", "GET /unknown", "GET /pets/1/2/3/4"};
+
+        for (boolean partitionByMethod : new boolean[]{false, true}) {
+            JsonNode flatDecision = decision(routes, new GenerationOptions().withRouting(flat).withPartitionByMethod(partitionByMethod));
+            JsonNode trieDecision = decision(routes, new GenerationOptions().withRouting(trie).withPartitionByMethod(partitionByMethod));
+
+            for (String request : requests) {
+                String[] methodAndUri = request.split(" ");
+                assertEquals(request, route(flatDecision, methodAndUri[0], methodAndUri[1]), route(trieDecision, methodAndUri[0], methodAndUri[1]));
+            }
+        }
+    }
+
+    private static List<Route> routes(String... methodsAndPaths) {
+        List<Route> routes = new ArrayList<>();
+
+        for (String methodAndPath : methodsAndPaths) {
+            String[] parts = methodAndPath.split(" ");
+            String stepId = "route-" + (routes.size() + 1);
+            Route route = new Route(stepId, new Operation(), PathTemplate.compile(parts[1]), new PathItem(), Method.valueOf(parts[0]));
+            route.setStep(new SequenceRef(stepId, "classpath:/" + stepId + ".json"));
+            route.setPathCondition(ConfigurationGenerator.buildPathCondition(route.getPathTemplate(), null));
+            routes.add(route);
+        }
+
+        return routes;
+    }
+
+    private static JsonNode decision(List<Route> routes, GenerationOptions options) {
+        return MAPPER.valueToTree(RoutingDecisionBuilder.buildRoutingDecision(routes, options));
+    }
+
+    /**
+     * evaluates a generated decision as regurgitator does, taking the first rule whose conditions all hold
+     */
+    private static String route(JsonNode decision, String method, String uri) {
+        String stepId = decision.get("default-step").asText();
+
+        for (JsonNode rule : decision.get("rules")) {
+            boolean matches = true;
+
+            for (JsonNode condition : rule.get("conditions")) {
+                String value = condition.get("source").asText().equals("request-metadata:method") ? method : uri;
+                matches &= condition.has("equals") ? condition.get("equals").asText().equals(value) : Pattern.compile(condition.get("matches").asText()).matcher(value).find();
+            }
+
+            if (matches) {
+                stepId = rule.get("step").asText();
+                break;
+            }
+        }
+
+        for (JsonNode step : decision.get("steps")) {
+            if (stepId.equals(step.path("id").asText())) {
+                switch (step.get("kind").asText()) {
+                    case "decision": return route(step, method, uri);
+                    case "sequence-ref": return stepId;
+                    default: return UNMAPPED;
+                }
+            }
+        }
+
+        throw new IllegalStateException("step not found: " + stepId);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class SpecCacheTest {
+    private static final String SPEC = String.join("\n",
+            "openapi: 3.0.1",
+            "info:",
+            "  title: pets",
+            "  version: 1.0.0",
+            "paths:",
+            "  /pets/{petId}:",
+            "    parameters:",
+            "      - name: petId",
+            "        in: path",
+            "        required: true",
+            "        schema:",
+            "          type: integer",
+            "          format: int64",
+            "    get:",
+            "      operationId: getPet",
+            "      tags: [pets]",
+            "      parameters:",
+            "        - name: fields",
+            "          in: query",
+            "          schema:",
+            "            type: array",
+            "            items:",
+            "              type: string",
+            "      responses:",
+            "        '200':",
+            "          description: a pet",
+            "          content:",
+            "            application/json:",
+            "              schema:",
+            "                $ref: '#/components/schemas/Pet'",
+            "            application/xml:",
+            "              schema:",
+            "                $ref: '#/components/schemas/Pet'",
+            "        default:",
+            "          $ref: 'responses.yaml#/components/responses/Error'",
+            "components:",
+            "  schemas:",
+            "    Pet:",
+            "      type: object",
+            "      xml:",
+            "        name: pet",
+            "      required: [name]",
+            "      properties:",
+            "        id:",
+            "          type: integer",
+            "          format: int64",
+            "          xml:",
+            "            attribute: true",
+            "        name:",
+            "          type: string",
+            "          example: rex",
+            "        status:",
+            "          type: string",
+            "          enum: [available, sold]",
+            "        owner:",
+            "          allOf:",
+            "            - $ref: '#/components/schemas/Owner'",
+            "            - type: object",
+            "              properties:",
+            "                since:",
+            "                  type: string",
+            "                  format: date-time",
+            "        tags:",
+            "          type: array",
+            "          xml:",
+            "            wrapped: true",
+            "          items:",
+            "            type: string",
+            "    Owner:",
+            "      type: object",
+            "      additionalProperties:",
+            "        type: string",
+            "      properties:",
+            "        pets:",
+            "          type: array",
+            "          items:",
+            "            $ref: '#/components/schemas/Pet'",
+            "");
+
+    private static final String RESPONSES = String.join("\n",
+            "components:",
+            "  responses:",
+            "    Error:",
+            "      description: %s",
+            "      content:",
+            "        application/json:",
+            "          schema:",
+            "            type: object",
+            "            properties:",
+            "              code:",
+            "                type: integer",
+            "              message:",
+            "                type: string",
+            "");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCachedModelEqualsFreshParse() throws Exception {
+        File swaggerFile = writeSpec("an error");
+        File cacheDirectory = folder.newFolder("cache");
+
+        OpenAPI parsed = new SpecCache(cacheDirectory).read(swaggerFile);
+        assertEquals(1, cacheDirectory.list().length);
+
+        OpenAPI cached = new SpecCache(cacheDirectory).read(swaggerFile);
+        OpenAPI fresh = SpecCache.parse(swaggerFile);
+
+        assertNotNull(cached);
+        assertEquals(fresh, parsed);
+        assertEquals(Json.mapper().valueToTree(fresh), Json.mapper().valueToTree(cached)); // an empty map of extensions the parser leaves on components is not written, so is read back as null
+        assertEquals(fresh.toString(), cached.toString());
+    }
+
+    @Test
+    public void testCachedModelIsUsedWhileUnchanged() throws Exception {
+        File swaggerFile = writeSpec("an error");
+        File cacheDirectory = folder.newFolder("cache");
+        new SpecCache(cacheDirectory).read(swaggerFile);
+        retitleCachedModel(cacheDirectory);
+
+        assertEquals("cached pets", new SpecCache(cacheDirectory).read(swaggerFile).getInfo().getTitle());
+    }
+
+    @Test
+    public void testChangedReferencedFileIsParsedAgain() throws Exception {
+        File swaggerFile = writeSpec("an error");
+        File cacheDirectory = folder.newFolder("cache");
+        new SpecCache(cacheDirectory).read(swaggerFile);
+        retitleCachedModel(cacheDirectory);
+
+        writeSpec("another error");
+
+        assertEquals("pets", new SpecCache(cacheDirectory).read(swaggerFile).getInfo().getTitle());
+        assertEquals("pets", new SpecCache(cacheDirectory).read(swaggerFile).getInfo().getTitle());
+    }
+
+    /**
+     * changes the title of the one cached model, so that whether a read came from the cache can be told
+     */
+    private static void retitleCachedModel(File cacheDirectory) throws IOException {
+        File cacheFile = cacheDirectory.listFiles()[0];
+        String cachedJson = new String(Files.readAllBytes(cacheFile.toPath()), StandardCharsets.UTF_8);
+        Files.write(cacheFile.toPath(), cachedJson.replace("\"title\":\"pets\"", "\"title\":\"cached pets\"").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private File writeSpec(String errorDescription) throws IOException {
+        File swaggerFile = new File(folder.getRoot(), "pets.yaml");
+        Files.write(swaggerFile.toPath(), SPEC.getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(folder.getRoot(), "responses.yaml").toPath(), String.format(RESPONSES, errorDescription).getBytes(StandardCharsets.UTF_8));
+        return swaggerFile;
+    }
+}
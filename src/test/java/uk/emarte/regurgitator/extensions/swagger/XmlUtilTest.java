@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017 Miles Talmey.
+ * Distributed under the MIT License (license terms are at http://opensource.org/licenses/MIT).
+ */
+package uk.emarte.regurgitator.extensions.swagger;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.DateTimeSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.media.UUIDSchema;
+import io.swagger.v3.oas.models.media.XML;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.FileOutputStream;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class XmlUtilTest {
+    private static final String NEW_LINE = "\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCachedComponentIsReplayedAtItsOwnDepth() throws Exception {
+        Components components = new Components()
+                .addSchemas("Pet", new ObjectSchema().xml(new XML().name("pet")).addProperty("id", new IntegerSchema().xml(new XML().attribute(true))).addProperty("name", new StringSchema()))
+                .addSchemas("Owner", new ObjectSchema().xml(new XML().name("owner"))
+                        .addProperty("pet", new Schema<>().$ref("#/components/schemas/Pet"))
+                        .addProperty("pets", new ArraySchema().items(new Schema<>().$ref("#/components/schemas/Pet").xml(new XML().name("pet"))).xml(new XML().name("pets").wrapped(true))));
+        ComponentGraph graph = new ComponentGraph(components);
+        ExampleCache cache = new ExampleCache(graph);
+
+        String pet = "<pet id=\"1\">" + NEW_LINE + "%1$s    <name>abcdefgh</name>" + NEW_LINE + "%1$s</pet>";
+        String expected = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + NEW_LINE
+                + "<owner>" + NEW_LINE
+                + "    " + String.format(pet, "    ") + NEW_LINE
+                + "    <pets>" + NEW_LINE
+                + "        " + String.format(pet, "        ") + NEW_LINE
+                + "    </pets>" + NEW_LINE
+                + "</owner>" + NEW_LINE;
+
+        assertEquals(expected, render("Owner", graph, cache));
+        assertEquals(0, rendersOnNextUse(cache, "Pet", "pet"));
+        assertEquals(expected, render("Owner", graph, cache));
+    }
+
+    @Test
+    public void testRecursiveComponentIsNotCached() throws Exception {
+        Components components = new Components()
+                .addSchemas("Node", new ObjectSchema().xml(new XML().name("node")).addProperty("name", new StringSchema()).addProperty("child", new Schema<>().$ref("#/components/schemas/Node")));
+        ComponentGraph graph = new ComponentGraph(components);
+        ExampleCache cache = new ExampleCache(graph);
+
+        String expected = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + NEW_LINE
+                + "<node>" + NEW_LINE
+                + "    <name>abcdefgh</name>" + NEW_LINE
+                + "    <node/>" + NEW_LINE
+                + "</node>" + NEW_LINE;
+
+        assertEquals(expected, render("Node", graph, cache));
+        assertEquals(expected, render("Node", graph, cache));
+        assertEquals(1, rendersOnNextUse(cache, "Node", null));
+    }
+
+    @Test
+    public void testComponentWithGeneratedValueIsNotCached() throws Exception {
+        Components components = new Components()
+                .addSchemas("Order", new ObjectSchema().xml(new XML().name("order")).addProperty("id", new UUIDSchema()));
+        ComponentGraph graph = new ComponentGraph(components);
+        ExampleCache cache = new ExampleCache(graph);
+
+        assertNotEquals(render("Order", graph, cache), render("Order", graph, cache));
+        assertEquals(1, rendersOnNextUse(cache, "Order", null));
+    }
+
+    @Test
+    public void testDateTimeExampleIsRendered() throws Exception {
+        Components components = new Components()
+                .addSchemas("Event", new ObjectSchema().xml(new XML().name("event")).addProperty("at", new DateTimeSchema()));
+        ComponentGraph graph = new ComponentGraph(components);
+
+        assertTrue(render("Event", graph, new ExampleCache(graph)).matches("(?s).*<at>\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}</at>.*"));
+    }
+
+    private String render(String componentName, ComponentGraph graph, ExampleCache cache) throws Exception {
+        Schema<?> schema = new Schema<>().$ref("#/components/schemas/" + componentName);
+        return XmlUtil.saveToXml(writer -> XmlUtil.writeXmlObject(null, schema, graph, cache, new HashSet<>(), writer), new FileOutputStream(folder.newFile()));
+    }
+
+    /**
+     * the number of times the cache calls on a renderer for its next use of a component
+     */
+    private int rendersOnNextUse(ExampleCache cache, String componentName, String elementName) throws Exception {
+        AtomicInteger renders = new AtomicInteger();
+        XmlUtil.saveToXml(writer -> cache.xml(componentName, elementName, writer, componentWriter -> renders.incrementAndGet()), new FileOutputStream(folder.newFile()));
+        return renders.get();
+    }
+}